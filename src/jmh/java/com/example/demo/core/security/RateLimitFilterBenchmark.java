@@ -0,0 +1,95 @@
+package com.example.demo.core.security;
+
+import com.example.demo.core.security.ratelimit.RateLimitProperties;
+import com.example.demo.core.security.ratelimit.StripedTokenBuckets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Overhead of {@link RateLimitFilter} on a login request (compare {@code filter} with {@code baseline}) and of a single bucket acquisition, uncontended and with
+ * several threads on distinct and on shared keys. Run with {@code gradle jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimitFilterBenchmark {
+
+  private static final byte[] LOGIN_BODY = "{\"email\":\"admin@example.com\",\"password\":\"1234\"}".getBytes(
+      StandardCharsets.UTF_8);
+  private static final FilterChain NO_OP_CHAIN = (request, response) -> {
+  };
+
+  private RateLimitFilter filter;
+  private StripedTokenBuckets buckets;
+  private String[] ips;
+
+  @Setup
+  public void setUp() {
+    RateLimitProperties properties = new RateLimitProperties();
+    RateLimitProperties.Endpoint login = new RateLimitProperties.Endpoint();
+    login.setPath("/user/login");
+    login.setCapacity(Integer.MAX_VALUE / 2);
+    login.setRefillPerMinute(Integer.MAX_VALUE);
+    properties.getEndpoints()
+              .put("login", login);
+    filter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+    buckets = new StripedTokenBuckets(Integer.MAX_VALUE / 2, Integer.MAX_VALUE, 600_000, 100_000);
+    ips = new String[4096];
+    for (int i = 0; i < ips.length; i++) {
+      ips[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+    }
+  }
+
+  // Die Mock-Objekte sind nicht wiederverwendbar, "baseline" misst nur deren Erzeugung
+  @Benchmark
+  public Object baseline() {
+    MockHttpServletRequest request = request();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    return request.getRemoteAddr() == null ? request : response;
+  }
+
+  @Benchmark
+  public Object filter() throws Exception {
+    MockHttpServletRequest request = request();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, NO_OP_CHAIN);
+    return response;
+  }
+
+  private static MockHttpServletRequest request() {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/user/login");
+    request.setContent(LOGIN_BODY);
+    return request;
+  }
+
+  @Benchmark
+  public long acquireSharedKey() {
+    return buckets.tryAcquire("10.0.0.1", System.nanoTime());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long acquireSharedKeyContended() {
+    return buckets.tryAcquire("10.0.0.1", System.nanoTime());
+  }
+
+  @Benchmark
+  @Threads(4)
+  public long acquireDistinctKeysContended() {
+    return buckets.tryAcquire(ips[ThreadLocalRandom.current()
+                                                   .nextInt(ips.length)], System.nanoTime());
+  }
+}
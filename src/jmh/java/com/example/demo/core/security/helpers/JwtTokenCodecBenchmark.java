@@ -0,0 +1,103 @@
+package com.example.demo.core.security.helpers;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the former per-call key derivation and parser construction with the shared {@link JwtTokenCodec}.
+ * Run with {@code gradle jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenCodecBenchmark {
+
+  private static final String SECRET = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+
+  private JwtProperties jwtProperties;
+  private JwtTokenCodec codec;
+  private Map<String, Object> claims;
+  private String validToken;
+  private String expiredToken;
+
+  @Setup
+  public void setUp() {
+    jwtProperties = new JwtProperties();
+    jwtProperties.setSecret(SECRET);
+    jwtProperties.setIssuer("uk223");
+    jwtProperties.setExpirationMillis(100_000_000);
+    codec = new JwtTokenCodec(jwtProperties);
+    claims = Map.of("sub", UUID.randomUUID()
+                               .toString());
+    validToken = codec.encode(claims);
+    expiredToken = Jwts.builder()
+                       .setClaims(claims)
+                       .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                       .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                       .compact();
+  }
+
+  @Benchmark
+  public Claims parsePerCall() {
+    return Jwts.parserBuilder()
+               .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtProperties.getSecret())))
+               .build()
+               .parseClaimsJws(validToken)
+               .getBody();
+  }
+
+  @Benchmark
+  public Optional<Claims> parseShared() {
+    return codec.decode(validToken);
+  }
+
+  @Benchmark
+  public boolean rejectExpiredPerCall() {
+    try {
+      Jwts.parserBuilder()
+          .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtProperties.getSecret())))
+          .build()
+          .parseClaimsJws(expiredToken);
+      return false;
+    }
+    catch (JwtException e) {
+      return true;
+    }
+  }
+
+  @Benchmark
+  public Optional<Claims> rejectExpiredShared() {
+    return codec.decode(expiredToken);
+  }
+
+  @Benchmark
+  public String signPerCall() {
+    return Jwts.builder()
+               .setClaims(claims)
+               .setIssuedAt(new Date())
+               .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getExpirationMillis()))
+               .setIssuer(jwtProperties.getIssuer())
+               .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtProperties.getSecret())))
+               .compact();
+  }
+
+  @Benchmark
+  public String signShared() {
+    return codec.encode(claims);
+  }
+}
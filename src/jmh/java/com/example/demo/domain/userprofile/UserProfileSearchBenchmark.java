@@ -0,0 +1,138 @@
+package com.example.demo.domain.userprofile;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Former OR-of-LIKEs search across users and user_profile versus the single search_text predicate, each as the page
+ * query plus the count query Spring Data runs for a {@code Page}.
+ *
+ * Uses an in-memory H2 database by default, which shows the effect of dropping the join and the four predicates
+ * only. Pass {@code -Dbench.jdbcUrl=jdbc:postgresql://...} (plus {@code bench.driver}, {@code bench.user} and
+ * {@code bench.password}) to the benchmark JVM to run against PostgreSQL with the trigram index. Run with
+ * {@code gradle jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserProfileSearchBenchmark {
+
+  private static final String OR_OF_LIKES = "FROM user_profile up JOIN users u ON u.id = up.id_user WHERE "
+      + "LOWER(u.first_name) LIKE LOWER(?) OR LOWER(u.last_name) LIKE LOWER(?) OR "
+      + "LOWER(u.email) LIKE LOWER(?) OR LOWER(up.address) LIKE LOWER(?)";
+  private static final String SEARCH_TEXT = "FROM user_profile up WHERE up.search_text LIKE ? ESCAPE '\\'";
+  private static final String[] FIRST_NAMES = {"James", "Tyler", "Marla", "Robert", "Anna", "Lukas", "Sofia"};
+  private static final String[] STREETS = {"Main Street", "Hauptstrasse", "Gran Via", "Park Lane", "Via Roma"};
+
+  @Param({"100000", "1000000"})
+  public int rows;
+
+  private Connection connection;
+  private String term;
+
+  @Setup
+  public void setUp() throws Exception {
+    // Das JMH-Jar führt die META-INF/services der Treiber nicht sauber zusammen
+    Class.forName(System.getProperty("bench.driver", "org.h2.Driver"));
+    connection = DriverManager.getConnection(System.getProperty("bench.jdbcUrl", "jdbc:h2:mem:search;MODE=PostgreSQL"),
+        System.getProperty("bench.user", "sa"), System.getProperty("bench.password", ""));
+    boolean postgres = "PostgreSQL".equals(connection.getMetaData()
+                                                     .getDatabaseProductName());
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS user_profile");
+      statement.execute("DROP TABLE IF EXISTS users");
+      statement.execute("CREATE TABLE users (id UUID PRIMARY KEY, first_name VARCHAR(255), "
+          + "last_name VARCHAR(255), email VARCHAR(255) NOT NULL)");
+      statement.execute("CREATE TABLE user_profile (id UUID PRIMARY KEY, id_user UUID NOT NULL UNIQUE, "
+          + "address VARCHAR(255) NOT NULL, search_text VARCHAR(1024))");
+    }
+    connection.setAutoCommit(false);
+    try (PreparedStatement users = connection.prepareStatement("INSERT INTO users VALUES (?, ?, ?, ?)");
+         PreparedStatement profiles = connection.prepareStatement(
+             "INSERT INTO user_profile (id, id_user, address) VALUES (?, ?, ?)")) {
+      for (int i = 0; i < rows; i++) {
+        UUID userId = UUID.randomUUID();
+        users.setObject(1, userId);
+        users.setString(2, FIRST_NAMES[i % FIRST_NAMES.length]);
+        users.setString(3, "Surname" + i);
+        users.setString(4, "person" + i + "@example.com");
+        users.addBatch();
+        profiles.setObject(1, UUID.randomUUID());
+        profiles.setObject(2, userId);
+        profiles.setString(3, STREETS[i % STREETS.length] + " " + (i % 500) + ", City" + (i % 1000));
+        profiles.addBatch();
+        if (i % 10_000 == 9_999) {
+          users.executeBatch();
+          profiles.executeBatch();
+        }
+      }
+      users.executeBatch();
+      profiles.executeBatch();
+    }
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("UPDATE user_profile SET search_text = " + UserProfileSearch.SEARCH_TEXT_SQL);
+      if (postgres) {
+        statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        statement.execute("CREATE INDEX user_profile_search_text_trgm ON user_profile "
+            + "USING gin (search_text gin_trgm_ops)");
+        statement.execute("ANALYZE user_profile");
+        statement.execute("ANALYZE users");
+      }
+    }
+    connection.commit();
+    term = "person" + (rows / 2) + "@";
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    connection.close();
+  }
+
+  @Benchmark
+  public long orOfLikes() throws SQLException {
+    String pattern = "%" + term + "%";
+    return page(OR_OF_LIKES, pattern, pattern, pattern, pattern);
+  }
+
+  @Benchmark
+  public long searchText() throws SQLException {
+    return page(SEARCH_TEXT, UserProfileSearch.likePattern(term));
+  }
+
+  private long page(String from, String... parameters) throws SQLException {
+    long result = 0;
+    try (PreparedStatement select = connection.prepareStatement(
+        "SELECT up.id, up.address " + from + " ORDER BY up.address LIMIT 20");
+         PreparedStatement count = connection.prepareStatement("SELECT COUNT(*) " + from)) {
+      for (int i = 0; i < parameters.length; i++) {
+        select.setString(i + 1, parameters[i]);
+        count.setString(i + 1, parameters[i]);
+      }
+      try (ResultSet rs = select.executeQuery()) {
+        while (rs.next()) {
+          result++;
+        }
+      }
+      try (ResultSet rs = count.executeQuery()) {
+        rs.next();
+        result += rs.getLong(1);
+      }
+    }
+    return result;
+  }
+}
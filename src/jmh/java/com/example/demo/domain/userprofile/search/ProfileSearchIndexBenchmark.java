@@ -0,0 +1,65 @@
+package com.example.demo.domain.userprofile.search;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Substring queries against {@link ProfileSearchIndex} with synthetic profiles: a selective term, a term matching
+ * a fifth of all profiles (sorted page), and a term shorter than an n-gram. Run with {@code gradle jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProfileSearchIndexBenchmark {
+
+  private static final String[] FIRST_NAMES = {"James", "Tyler", "Marla", "Robert", "Anna", "Lukas", "Sofia"};
+  private static final String[] STREETS = {"Main Street", "Hauptstrasse", "Gran Via", "Park Lane", "Via Roma"};
+
+  @Param({"100000"})
+  public int profiles;
+
+  private ProfileSearchIndex index;
+  private String selectiveTerm;
+
+  @Setup
+  public void setUp() {
+    index = new ProfileSearchIndex(null, new ProfileSearchProperties(true, 3));
+    List<ProfileSearchDocument> documents = new ArrayList<>(profiles);
+    for (int i = 0; i < profiles; i++) {
+      documents.add(new ProfileSearchDocument(UUID.randomUUID(), UUID.randomUUID(),
+          FIRST_NAMES[i % FIRST_NAMES.length], "Surname" + i, "person" + i + "@example.com",
+          STREETS[i % STREETS.length] + " " + (i % 500) + ", City" + (i % 1000), 18 + i % 60,
+          LocalDate.of(1960 + i % 60, 1 + i % 12, 1 + i % 28)));
+    }
+    index.rebuild(documents);
+    selectiveTerm = "person" + (profiles / 2) + "@";
+  }
+
+  @Benchmark
+  public Object selectiveTerm() {
+    return index.search(selectiveTerm, null, null, null, PageRequest.of(0, 20));
+  }
+
+  @Benchmark
+  public Object broadTermSortedPage() {
+    return index.search("park lane", null, null, null, PageRequest.of(2, 20, Sort.by("user.lastName")));
+  }
+
+  @Benchmark
+  public Object shortTerm() {
+    return index.search("j", null, 30, 40, PageRequest.of(0, 20));
+  }
+}
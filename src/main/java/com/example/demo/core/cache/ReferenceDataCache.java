@@ -0,0 +1,37 @@
+package com.example.demo.core.cache;
+
+import com.example.demo.domain.authority.Authority;
+import com.example.demo.domain.role.Role;
+import com.example.demo.domain.user.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Eviction hook for the second-level cache regions of {@link SecondLevelCacheConfig}.
+ */
+@Component
+public class ReferenceDataCache {
+
+  private static final Logger logger = LogManager.getLogger(ReferenceDataCache.class);
+
+  private final Cache cache;
+
+  public ReferenceDataCache(EntityManagerFactory entityManagerFactory) {
+    this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+  }
+
+  /**
+   * Drops all cached roles, authorities and role assignments; the next loads read them from the database again
+   */
+  public void evictAll() {
+    cache.evictEntityData(Role.class);
+    cache.evictEntityData(Authority.class);
+    cache.evictCollectionData(Role.class.getName() + ".authorities");
+    cache.evictCollectionData(User.class.getName() + ".roles");
+    logger.info("Evicted second-level cache regions for roles and authorities");
+  }
+}
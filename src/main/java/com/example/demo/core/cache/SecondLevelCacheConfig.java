@@ -0,0 +1,61 @@
+package com.example.demo.core.cache;
+
+import com.example.demo.domain.authority.Authority;
+import com.example.demo.domain.role.Role;
+import com.example.demo.domain.user.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate second-level cache for reference data: roles, their authorities and the role assignments of users.
+ *
+ * The regions live in an in-process Caffeine JCache manager, each bounded by size and time. Every application
+ * context gets its own manager under a unique URI instead of the JVM-wide default one, so contexts neither share
+ * regions configured by another context nor close a manager still in use elsewhere. Changes made through
+ * Hibernate keep the regions current; changes made directly in the database are picked up after
+ * {@link ReferenceDataCache#evictAll()} or once the entries expire.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+  static final List<String> REGIONS = List.of(Role.class.getName(), Role.class.getName() + ".authorities",
+      Authority.class.getName(), User.class.getName() + ".roles");
+
+  @Bean(destroyMethod = "close")
+  public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+    CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+    CacheManager cacheManager = provider.getCacheManager(URI.create("hibernate-l2-" + UUID.randomUUID()),
+        provider.getDefaultClassLoader());
+    for (String region : REGIONS) {
+      CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+      configuration.setMaximumSize(OptionalLong.of(properties.getMaximumSize()));
+      configuration.setExpireAfterWrite(
+          OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(properties.getExpireAfterWriteMillis())));
+      cacheManager.createCache(region, configuration);
+    }
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+    return properties -> {
+      properties.put("hibernate.cache.use_second_level_cache", true);
+      properties.put("hibernate.cache.region.factory_class", "jcache");
+      properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+      // Nur Entities und Collections mit @Cache
+      properties.put("jakarta.persistence.sharedCache.mode", "ENABLE_SELECTIVE");
+    };
+  }
+}
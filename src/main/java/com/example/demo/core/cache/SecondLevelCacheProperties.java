@@ -0,0 +1,22 @@
+package com.example.demo.core.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("second-level-cache")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class SecondLevelCacheProperties {
+
+  // Gilt pro Region; die Region User.roles hat einen Eintrag pro geladenem User
+  private long maximumSize = 10_000;
+  private long expireAfterWriteMillis = 3_600_000;
+
+}
@@ -6,9 +6,18 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
+import com.example.demo.core.security.config.PasswordVerificationRejectedException;
+import com.example.demo.domain.refreshtoken.InvalidRefreshTokenException;
+import com.example.demo.domain.userprofile.ProfileAlreadyExistsException;
+import com.example.demo.domain.userprofile.ProfileVersionMismatchException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import lombok.AllArgsConstructor;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -34,6 +43,19 @@ public class CustomGlobalExceptionHandler {
                               .build();
   }
 
+  // Validierung ausserhalb von @Valid, z.B. eines Profils nach einem Merge Patch
+  @ExceptionHandler(ConstraintViolationException.class)
+  @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+  public ResponseError handleConstraintViolation(ConstraintViolationException ex) {
+    return new ResponseError().setTimeStamp(LocalDate.now())
+                              .setErrors(ex.getConstraintViolations()
+                                           .stream()
+                                           .collect(Collectors.toMap(violation -> violation.getPropertyPath()
+                                                                                           .toString(),
+                                               ConstraintViolation::getMessage, (first, second) -> first)))
+                              .build();
+  }
+
   @ExceptionHandler({NoSuchElementException.class})
   @ResponseStatus(value = HttpStatus.NOT_FOUND)
   public ResponseError handleNoSuchElement() {
@@ -54,6 +76,59 @@ public class CustomGlobalExceptionHandler {
                               .build();
   }
 
+  @ExceptionHandler({PasswordVerificationRejectedException.class})
+  @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+  public ResponseError handlePasswordVerificationRejected(PasswordVerificationRejectedException e,
+                                                          HttpServletResponse response) {
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+    Map<String, String> errors = new HashMap<>();
+    errors.put("status", e.getMessage());
+    return new ResponseError().setTimeStamp(LocalDate.now())
+                              .setErrors(errors)
+                              .build();
+  }
+
+  @ExceptionHandler({InvalidRefreshTokenException.class})
+  @ResponseStatus(value = HttpStatus.UNAUTHORIZED)
+  public ResponseError handleInvalidRefreshToken(Throwable e) {
+    Map<String, String> errors = new HashMap<>();
+    errors.put("refreshToken", e.getMessage());
+    return new ResponseError().setTimeStamp(LocalDate.now())
+                              .setErrors(errors)
+                              .build();
+  }
+
+  @ExceptionHandler({ProfileVersionMismatchException.class})
+  @ResponseStatus(value = HttpStatus.PRECONDITION_FAILED)
+  public ResponseError handleProfileVersionMismatch(Throwable e) {
+    Map<String, String> errors = new HashMap<>();
+    errors.put("version", e.getMessage());
+    return new ResponseError().setTimeStamp(LocalDate.now())
+                              .setErrors(errors)
+                              .build();
+  }
+
+  @ExceptionHandler({ProfileAlreadyExistsException.class})
+  @ResponseStatus(value = HttpStatus.CONFLICT)
+  public ResponseError handleProfileAlreadyExists(Throwable e) {
+    Map<String, String> errors = new HashMap<>();
+    errors.put("profile", e.getMessage());
+    return new ResponseError().setTimeStamp(LocalDate.now())
+                              .setErrors(errors)
+                              .build();
+  }
+
+  // Gleichzeitige Änderung zwischen Lesen und Schreiben (@Version)
+  @ExceptionHandler({OptimisticLockingFailureException.class})
+  @ResponseStatus(value = HttpStatus.CONFLICT)
+  public ResponseError handleOptimisticLockingFailure() {
+    Map<String, String> errors = new HashMap<>();
+    errors.put("version", "Entity was modified concurrently, reload it and retry");
+    return new ResponseError().setTimeStamp(LocalDate.now())
+                              .setErrors(errors)
+                              .build();
+  }
+
   @ExceptionHandler({HttpMessageNotReadableException.class})
   @ResponseStatus(value = HttpStatus.BAD_REQUEST)
   public ResponseError handleHttp(Throwable e) {
@@ -1,7 +1,27 @@
 package com.example.demo.core.generic;
 
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+@NoRepositoryBean
 public interface AbstractRepository<T extends AbstractEntity> extends JpaRepository<T, UUID> {
+
+  // Slice instead of Page: reads one row more than requested instead of running a COUNT
+  Slice<T> findAllBy(Pageable pageable);
+
+  // Keyset continuation, callers sort by id
+  Slice<T> findAllByIdGreaterThan(UUID after, Pageable pageable);
+
+  // Single DELETE statement; unlike deleteById it neither loads the entity first nor needs an existsById check
+  @Modifying(flushAutomatically = true)
+  @Transactional
+  @Query("DELETE FROM #{#entityName} e WHERE e.id = :id")
+  int deleteDirectlyById(@Param("id") UUID id);
 }
@@ -3,7 +3,9 @@ package com.example.demo.core.generic;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface AbstractService<T extends AbstractEntity> {
 
@@ -17,6 +19,25 @@ public interface AbstractService<T extends AbstractEntity> {
 
   List<T> findAll(Pageable pageable);
 
+  /**
+   * Page without total count.
+   */
+  Slice<T> findSlice(Pageable pageable);
+
+  /**
+   * Keyset page in id order, starting after {@code after} (from the start if null). Its cost does not grow with the
+   * position in the table, unlike an offset.
+   */
+  Slice<T> findSliceAfter(UUID after, int size);
+
+  /**
+   * Passes all entities in id order to {@code action}, loaded in chunks so the heap stays flat regardless of the
+   * table size. The entities are detached once their chunk has been processed.
+   *
+   * @return number of entities passed
+   */
+  long streamAll(Consumer<? super T> action);
+
   T findById(UUID id);
 
   boolean existsById(UUID id);
@@ -4,16 +4,33 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.UUID;
+import java.util.function.Consumer;
 
-import lombok.AllArgsConstructor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.NoArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
 
-@AllArgsConstructor@NoArgsConstructor
+@NoArgsConstructor
 public abstract class AbstractServiceImpl<T extends AbstractEntity> implements AbstractService<T> {
+  private static final int MAX_SLICE_SIZE = 1000;
+  private static final int STREAM_CHUNK_SIZE = 500;
+  private static final Sort BY_ID = Sort.by("id");
+
   protected AbstractRepository<T> repository;
 
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  protected AbstractServiceImpl(AbstractRepository<T> repository) {
+    this.repository = repository;
+  }
+
   @Override
   public T save(T entity) {
     return repository.save(entity);
@@ -21,9 +38,7 @@ public abstract class AbstractServiceImpl<T extends AbstractEntity> implements A
 
   @Override
   public void deleteById(UUID id) throws NoSuchElementException {
-    if (repository.existsById(id)) {
-      repository.deleteById(id);
-    } else {
+    if (repository.deleteDirectlyById(id) == 0) {
       throw new NoSuchElementException(String.format("Entity with ID '%s' could not be found", id));
     }
   }
@@ -49,6 +64,36 @@ public abstract class AbstractServiceImpl<T extends AbstractEntity> implements A
     return pagedResult.hasContent() ? pagedResult.getContent() : new ArrayList<>();
   }
 
+  @Override
+  public Slice<T> findSlice(Pageable pageable) {
+    return repository.findAllBy(pageable);
+  }
+
+  @Override
+  public Slice<T> findSliceAfter(UUID after, int size) {
+    Pageable pageable = PageRequest.of(0, Math.min(Math.max(size, 1), MAX_SLICE_SIZE), BY_ID);
+    return after == null ? repository.findAllBy(pageable) : repository.findAllByIdGreaterThan(after, pageable);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public long streamAll(Consumer<? super T> action) {
+    long count = 0;
+    UUID after = null;
+    Slice<T> chunk;
+    do {
+      // Keyset chunks instead of a database cursor: eager associations are batch fetched per chunk
+      chunk = findSliceAfter(after, STREAM_CHUNK_SIZE);
+      chunk.forEach(action);
+      count += chunk.getNumberOfElements();
+      if (chunk.hasContent()) {
+        after = chunk.getContent().get(chunk.getNumberOfElements() - 1).getId();
+      }
+      entityManager.clear();
+    } while (chunk.hasNext());
+    return count;
+  }
+
   @Override
   public T findById(UUID id) {
     return repository.findById(id).orElseThrow(NoSuchElementException::new);
@@ -0,0 +1,66 @@
+package com.example.demo.core.generic;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Entities already loaded during the current HTTP request.
+ *
+ * Permission checks register what they fetched, so the service layer can reuse it instead of reading the same row
+ * again. The entries live in the request attributes and disappear with the request. Outside of a request the
+ * registry is inactive and every lookup misses.
+ */
+@Component
+public class LoadedEntityRegistry {
+
+  private static final String ATTRIBUTE = LoadedEntityRegistry.class.getName();
+
+  private record Key(Class<?> type, UUID id) {
+  }
+
+  public boolean isActive() {
+    return RequestContextHolder.getRequestAttributes() != null;
+  }
+
+  public <T extends AbstractEntity> void register(T entity) {
+    Map<Key, AbstractEntity> entities = entities(true);
+    if (entities != null) {
+      entities.put(new Key(entity.getClass(), entity.getId()), entity);
+    }
+  }
+
+  public <T extends AbstractEntity> Optional<T> find(Class<T> type, UUID id) {
+    Map<Key, AbstractEntity> entities = entities(false);
+    if (entities == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(type.cast(entities.get(new Key(type, id))));
+  }
+
+  public void evict(Class<? extends AbstractEntity> type, UUID id) {
+    Map<Key, AbstractEntity> entities = entities(false);
+    if (entities != null) {
+      entities.remove(new Key(type, id));
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Map<Key, AbstractEntity> entities(boolean create) {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return null;
+    }
+    Map<Key, AbstractEntity> entities = (Map<Key, AbstractEntity>) attributes.getAttribute(ATTRIBUTE,
+        RequestAttributes.SCOPE_REQUEST);
+    if (entities == null && create) {
+      entities = new HashMap<>();
+      attributes.setAttribute(ATTRIBUTE, entities, RequestAttributes.SCOPE_REQUEST);
+    }
+    return entities;
+  }
+}
@@ -1,16 +1,14 @@
 package com.example.demo.core.security;
 
+import com.example.demo.core.security.config.PasswordVerificationRejectedException;
 import com.example.demo.core.security.helpers.AuthorizationSchemas;
 import com.example.demo.core.security.helpers.Credentials;
-import com.example.demo.core.security.helpers.JwtProperties;
+import com.example.demo.core.security.principal.AccessTokenIssuer;
+import com.example.demo.domain.refreshtoken.RefreshTokenService;
+import com.example.demo.domain.user.User;
 import com.example.demo.domain.user.UserDetailsImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import java.io.IOException;
-import java.util.Date;
-import java.util.Map;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -29,26 +27,16 @@ import org.springframework.security.web.util.matcher.RequestMatcher;
 @Log4j2
 public class JWTAuthenticationFilter extends AbstractAuthenticationProcessingFilter {
 
-  private final JwtProperties jwtProperties;
+  private static final String EPOCH_SNAPSHOT = JWTAuthenticationFilter.class.getName() + ".epochSnapshot";
+
+  private final AccessTokenIssuer accessTokenIssuer;
+  private final RefreshTokenService refreshTokenService;
 
   public JWTAuthenticationFilter(RequestMatcher requestMatcher, AuthenticationManager authenticationManager,
-                                 JwtProperties jwtProperties) {
+                                 AccessTokenIssuer accessTokenIssuer, RefreshTokenService refreshTokenService) {
     super(requestMatcher, authenticationManager);
-    this.jwtProperties = jwtProperties;
-  }
-
-  private String generateToken(Authentication authResult) {
-    UserDetailsImpl userDetailsImpl = (UserDetailsImpl) authResult.getPrincipal();
-    byte[] keyBytes = Decoders.BASE64.decode(jwtProperties.getSecret());
-
-    return Jwts.builder()
-               .setClaims(Map.of("sub", userDetailsImpl.user()
-                                                       .getId(), "authorities", userDetailsImpl.getAuthorities()))
-               .setIssuedAt(new Date())
-               .setExpiration(new Date(System.currentTimeMillis() + jwtProperties.getExpirationMillis()))
-               .setIssuer(jwtProperties.getIssuer())
-               .signWith(Keys.hmacShaKeyFor(keyBytes))
-               .compact();
+    this.accessTokenIssuer = accessTokenIssuer;
+    this.refreshTokenService = refreshTokenService;
   }
 
   @Override
@@ -56,6 +44,8 @@ public class JWTAuthenticationFilter extends AbstractAuthenticationProcessingFil
       throws AuthenticationException {
     try {
       Credentials credentials = new ObjectMapper().readValue(request.getInputStream(), Credentials.class);
+      // Vor dem Laden des Users, eine Rollenänderung währenddessen macht den Token sonst nie ungültig
+      request.setAttribute(EPOCH_SNAPSHOT, accessTokenIssuer.snapshot());
       return getAuthenticationManager().authenticate(
           new UsernamePasswordAuthenticationToken(credentials.getEmail(), credentials.getPassword()));
     }
@@ -68,13 +58,22 @@ public class JWTAuthenticationFilter extends AbstractAuthenticationProcessingFil
   @Override
   protected void successfulAuthentication(HttpServletRequest request, HttpServletResponse response, FilterChain chain,
                                           Authentication authResult) throws IOException {
-    response.addHeader(HttpHeaders.AUTHORIZATION, AuthorizationSchemas.BEARER + " " + generateToken(authResult));
+    User user = ((UserDetailsImpl) authResult.getPrincipal()).user();
+    long snapshot = (Long) request.getAttribute(EPOCH_SNAPSHOT);
+    response.addHeader(HttpHeaders.AUTHORIZATION,
+        AuthorizationSchemas.BEARER + " " + accessTokenIssuer.issue(user, snapshot));
+    response.addHeader(RefreshTokenService.HEADER, refreshTokenService.issue(user));
   }
 
   @Override
   protected void unsuccessfulAuthentication(HttpServletRequest request, HttpServletResponse response,
                                             AuthenticationException failed) {
     SecurityContextHolder.clearContext();
+    if (failed instanceof PasswordVerificationRejectedException rejected) {
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejected.getRetryAfterSeconds()));
+      return;
+    }
     response.setStatus(HttpStatus.UNAUTHORIZED.value());
   }
 }
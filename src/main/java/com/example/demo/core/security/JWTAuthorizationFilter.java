@@ -2,13 +2,14 @@ package com.example.demo.core.security;
 
 import com.example.demo.core.security.helpers.AuthorizationSchemas;
 import com.example.demo.core.security.helpers.JwtProperties;
+import com.example.demo.core.security.helpers.JwtTokenCodec;
+import com.example.demo.core.security.principal.PrincipalCache;
+import com.example.demo.core.security.principal.PrincipalClaims;
+import com.example.demo.core.security.principal.SecurityEpochRegistry;
+import com.example.demo.domain.user.User;
 import com.example.demo.domain.user.UserService;
 import com.example.demo.domain.user.UserDetailsImpl;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,18 +21,24 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.security.Key;
+import java.util.Optional;
 import java.util.UUID;
 
 public class JWTAuthorizationFilter extends OncePerRequestFilter {
 
   private final UserService userService;
-  private final Key signingKey;
+  private final SecurityEpochRegistry securityEpochRegistry;
+  private final PrincipalCache principalCache;
+  private final JwtTokenCodec jwtTokenCodec;
+  private final boolean statelessPrincipal;
 
-  public JWTAuthorizationFilter(UserService userService, JwtProperties jwtProperties) {
+  public JWTAuthorizationFilter(UserService userService, JwtProperties jwtProperties, JwtTokenCodec jwtTokenCodec,
+                                SecurityEpochRegistry securityEpochRegistry, PrincipalCache principalCache) {
     this.userService = userService;
-    byte[] keyBytes = Decoders.BASE64.decode(jwtProperties.getSecret());
-    this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+    this.securityEpochRegistry = securityEpochRegistry;
+    this.principalCache = principalCache;
+    this.jwtTokenCodec = jwtTokenCodec;
+    this.statelessPrincipal = jwtProperties.isStatelessPrincipal();
   }
 
   @Override
@@ -39,7 +46,7 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
     final String path = request.getServletPath();
     final String method = request.getMethod();
 
-    if ("/user/login".equals(path) || "/user/register".equals(path)) {
+    if ("/user/login".equals(path) || "/user/register".equals(path) || "/user/refresh".equals(path)) {
       return true;
     }
 
@@ -68,12 +75,13 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
       }
 
       final String rawToken = authHeader.substring((AuthorizationSchemas.BEARER.toString() + " ").length());
-      Jws<Claims> jws = Jwts.parserBuilder()
-              .setSigningKey(signingKey)
-              .build()
-              .parseClaimsJws(rawToken);
+      Optional<Claims> claims = jwtTokenCodec.decode(rawToken);
+      if (claims.isEmpty()) {
+        filterChain.doFilter(request, response);
+        return;
+      }
 
-      String subject = jws.getBody().getSubject();
+      String subject = claims.get().getSubject();
       if (subject == null || subject.isBlank()) {
         filterChain.doFilter(request, response);
         return;
@@ -81,8 +89,7 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
 
       UUID userId = UUID.fromString(subject);
 
-      var user = userService.findById(userId);
-      var userDetails = new UserDetailsImpl(user);
+      var userDetails = new UserDetailsImpl(resolveUser(userId, claims.get()));
 
       var authentication = new UsernamePasswordAuthenticationToken(
               userDetails, null, userDetails.getAuthorities());
@@ -94,4 +101,13 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
 
     filterChain.doFilter(request, response);
   }
+
+  // Im stateless Modus wird der User aus den Claims rekonstruiert, solange die Epoche noch aktuell ist
+  private User resolveUser(UUID userId, Claims claims) {
+    if (statelessPrincipal && PrincipalClaims.isPresent(claims)
+        && securityEpochRegistry.isCurrent(userId, PrincipalClaims.epoch(claims))) {
+      return PrincipalClaims.toUser(userId, claims);
+    }
+    return principalCache.get(userId, userService::findById);
+  }
 }
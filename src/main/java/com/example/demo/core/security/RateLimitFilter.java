@@ -0,0 +1,124 @@
+package com.example.demo.core.security;
+
+import com.example.demo.core.security.ratelimit.CachedBodyHttpServletRequest;
+import com.example.demo.core.security.ratelimit.EmailField;
+import com.example.demo.core.security.ratelimit.RateLimitProperties;
+import com.example.demo.core.security.ratelimit.StripedTokenBuckets;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.GenericFilterBean;
+
+/**
+ * Limits the POST requests to the configured endpoints, per client IP and per email in the request body.
+ *
+ * Runs before the authentication filter, so rejected requests never reach BCrypt. The IP bucket is checked first;
+ * only requests that pass it have their body inspected for the email. Extends {@link GenericFilterBean} instead of
+ * {@code OncePerRequestFilter} to keep the per-request bookkeeping off this hot path; only the initial dispatch is
+ * limited. Endpoints are matched like the login filter matches them, on the decoded path within the application, so
+ * encoded or parameterised variants of a path are limited as well. Buckets evicted because too many keys are tracked
+ * are counted in {@code rate.limit.evictions}, tagged with the endpoint and the key type.
+ */
+public class RateLimitFilter extends GenericFilterBean {
+
+  private static final int MAX_BODY_HEAD_BYTES = 4096;
+
+  private record Limiter(RequestMatcher matcher, StripedTokenBuckets byIp, StripedTokenBuckets byEmail) {
+  }
+
+  private final boolean enabled;
+  private final List<Limiter> limiters;
+
+  public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+    this.enabled = properties.isEnabled();
+    List<Limiter> configured = new ArrayList<>();
+    for (Map.Entry<String, RateLimitProperties.Endpoint> entry : properties.getEndpoints()
+                                                                           .entrySet()) {
+      RateLimitProperties.Endpoint endpoint = entry.getValue();
+      StripedTokenBuckets byIp = buckets(properties, endpoint);
+      monitor(meterRegistry, entry.getKey(), "ip", byIp);
+      StripedTokenBuckets byEmail = null;
+      if (endpoint.isPerEmail()) {
+        byEmail = buckets(properties, endpoint);
+        monitor(meterRegistry, entry.getKey(), "email", byEmail);
+      }
+      configured.add(new Limiter(new AntPathRequestMatcher(endpoint.getPath(), HttpMethod.POST.name()), byIp,
+          byEmail));
+    }
+    this.limiters = List.copyOf(configured);
+  }
+
+  @Override
+  public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+      throws ServletException, IOException {
+    HttpServletRequest request = (HttpServletRequest) servletRequest;
+    HttpServletResponse response = (HttpServletResponse) servletResponse;
+    Limiter limiter = enabled && request.getDispatcherType() == DispatcherType.REQUEST
+        && HttpMethod.POST.matches(request.getMethod()) ? limiter(request) : null;
+    if (limiter == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    long now = System.nanoTime();
+
+    long wait = limiter.byIp()
+                       .tryAcquire(request.getRemoteAddr(), now);
+    HttpServletRequest forwarded = request;
+    if (wait == 0 && limiter.byEmail() != null) {
+      CachedBodyHttpServletRequest cached = new CachedBodyHttpServletRequest(request, MAX_BODY_HEAD_BYTES);
+      String email = EmailField.read(cached.head());
+      if (email != null) {
+        wait = limiter.byEmail()
+                      .tryAcquire(email, now);
+      }
+      forwarded = cached;
+    }
+
+    if (wait > 0) {
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER,
+          String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + 999_999_999))));
+      return;
+    }
+    filterChain.doFilter(forwarded, response);
+  }
+
+  private Limiter limiter(HttpServletRequest request) {
+    for (Limiter limiter : limiters) {
+      if (limiter.matcher()
+                 .matches(request)) {
+        return limiter;
+      }
+    }
+    return null;
+  }
+
+  private static void monitor(MeterRegistry meterRegistry, String endpoint, String key, StripedTokenBuckets buckets) {
+    FunctionCounter.builder("rate.limit.evictions", buckets, StripedTokenBuckets::evictions)
+                   .tag("endpoint", endpoint)
+                   .tag("key", key)
+                   .register(meterRegistry);
+  }
+
+  private static StripedTokenBuckets buckets(RateLimitProperties properties, RateLimitProperties.Endpoint endpoint) {
+    return new StripedTokenBuckets(endpoint.getCapacity(), endpoint.getRefillPerMinute(), properties.getIdleMillis(),
+        properties.getMaxKeys());
+  }
+}
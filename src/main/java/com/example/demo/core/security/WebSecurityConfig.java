@@ -1,7 +1,15 @@
 package com.example.demo.core.security;
 
 import com.example.demo.core.security.helpers.JwtProperties;
+import com.example.demo.core.security.helpers.JwtTokenCodec;
+import com.example.demo.core.security.principal.AccessTokenIssuer;
+import com.example.demo.core.security.principal.PrincipalCache;
+import com.example.demo.core.security.principal.SecurityEpochRegistry;
+import com.example.demo.core.security.ratelimit.RateLimitProperties;
+import com.example.demo.domain.refreshtoken.RefreshTokenService;
 import com.example.demo.domain.user.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,24 +37,47 @@ public class WebSecurityConfig {
   private final UserService userService;
   private final PasswordEncoder passwordEncoder;
   private final JwtProperties jwtProperties;
+  private final JwtTokenCodec jwtTokenCodec;
+  private final SecurityEpochRegistry securityEpochRegistry;
+  private final PrincipalCache principalCache;
+  private final AccessTokenIssuer accessTokenIssuer;
+  private final RefreshTokenService refreshTokenService;
+  private final RateLimitProperties rateLimitProperties;
+  private final MeterRegistry meterRegistry;
 
   @Autowired
-  public WebSecurityConfig(UserService userService, PasswordEncoder passwordEncoder, JwtProperties jwtProperties) {
+  public WebSecurityConfig(UserService userService, PasswordEncoder passwordEncoder, JwtProperties jwtProperties,
+                           JwtTokenCodec jwtTokenCodec, SecurityEpochRegistry securityEpochRegistry,
+                           PrincipalCache principalCache, AccessTokenIssuer accessTokenIssuer,
+                           RefreshTokenService refreshTokenService, RateLimitProperties rateLimitProperties,
+                           MeterRegistry meterRegistry) {
     this.userService = userService;
     this.passwordEncoder = passwordEncoder;
     this.jwtProperties = jwtProperties;
+    this.jwtTokenCodec = jwtTokenCodec;
+    this.securityEpochRegistry = securityEpochRegistry;
+    this.principalCache = principalCache;
+    this.accessTokenIssuer = accessTokenIssuer;
+    this.refreshTokenService = refreshTokenService;
+    this.rateLimitProperties = rateLimitProperties;
+    this.meterRegistry = meterRegistry;
   }
 
   @Bean
   public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
     return http.authorizeHttpRequests(
-        requests -> requests.requestMatchers(HttpMethod.POST, "/user/login", "/user/register").permitAll()
+        // Die Fortsetzung gestreamter Antworten (z.B. Profil-Export) wurde mit dem ursprünglichen Request autorisiert
+        requests -> requests.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                            .requestMatchers(HttpMethod.POST, "/user/login", "/user/register", "/user/refresh")
+                            .permitAll()
                             .requestMatchers(HttpMethod.GET, "/v3/api-docs","/v3/api-docs/swagger-config","/swagger-ui/*").permitAll()
                             .anyRequest().authenticated())
+            .addFilterBefore(new RateLimitFilter(rateLimitProperties, meterRegistry), UsernamePasswordAuthenticationFilter.class)
             .addFilterAfter(new JWTAuthenticationFilter(new AntPathRequestMatcher("/user/login", "POST"),
-                    authenticationManager(), jwtProperties), UsernamePasswordAuthenticationFilter.class)
-            .addFilterAfter(new JWTAuthorizationFilter(userService, jwtProperties),
+                    authenticationManager(), accessTokenIssuer, refreshTokenService),
                     UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(new JWTAuthorizationFilter(userService, jwtProperties, jwtTokenCodec,
+                    securityEpochRegistry, principalCache), UsernamePasswordAuthenticationFilter.class)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
@@ -57,9 +88,10 @@ public class WebSecurityConfig {
   public CorsConfigurationSource corsConfigurationSource() {
     CorsConfiguration configuration = new CorsConfiguration();
     configuration.setAllowedOrigins(List.of("*"));
-    configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE"));
-    configuration.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type"));
-    configuration.setExposedHeaders(List.of("Authorization"));
+    configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE"));
+    configuration.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type", "If-Match",
+        "If-None-Match"));
+    configuration.setExposedHeaders(List.of("Authorization", RefreshTokenService.HEADER, "ETag"));
     UrlBasedCorsConfigurationSource configurationSource = new UrlBasedCorsConfigurationSource();
     configurationSource.registerCorsConfiguration("/**", configuration);
     return configurationSource;
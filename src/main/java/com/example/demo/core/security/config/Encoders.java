@@ -1,5 +1,7 @@
 package com.example.demo.core.security.config;
 
+import com.example.demo.core.security.helpers.PasswordVerificationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -8,8 +10,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class Encoders {
   @Bean
-  PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  PasswordEncoder passwordEncoder(PasswordVerificationProperties properties, MeterRegistry meterRegistry) {
+    return new OffloadingPasswordEncoder(new BCryptPasswordEncoder(), properties, meterRegistry);
   }
 }
 
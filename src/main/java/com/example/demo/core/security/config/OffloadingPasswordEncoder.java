@@ -0,0 +1,104 @@
+package com.example.demo.core.security.config;
+
+import com.example.demo.core.security.helpers.PasswordVerificationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs the hashing of a delegate {@link PasswordEncoder} on a dedicated, bounded executor.
+ *
+ * The executor has one thread per CPU core and a limited queue. When the queue is full the call fails immediately
+ * with {@link PasswordVerificationRejectedException} instead of occupying another request thread with hashing, so
+ * a burst of logins cannot starve the rest of the API. Queue wait and hash time are recorded as
+ * {@code password.hashing.wait} and {@code password.hashing.time}, rejections as {@code password.hashing.rejected}.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+  private final PasswordEncoder delegate;
+  private final ThreadPoolExecutor executor;
+  private final long retryAfterSeconds;
+  private final Timer waitTimer;
+  private final Timer hashTimer;
+  private final Counter rejectedCounter;
+
+  public OffloadingPasswordEncoder(PasswordEncoder delegate, PasswordVerificationProperties properties,
+                                   MeterRegistry meterRegistry) {
+    int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime()
+                                                                                 .availableProcessors();
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.delegate = delegate;
+    this.retryAfterSeconds = properties.getRetryAfterSeconds();
+    this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+      Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }, new ThreadPoolExecutor.AbortPolicy());
+    this.waitTimer = meterRegistry.timer("password.hashing.wait");
+    this.hashTimer = meterRegistry.timer("password.hashing.time");
+    this.rejectedCounter = meterRegistry.counter("password.hashing.rejected");
+    meterRegistry.gauge("password.hashing.queue", executor, e -> e.getQueue()
+                                                                  .size());
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return offload(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return offload(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    return delegate.upgradeEncoding(encodedPassword);
+  }
+
+  private <T> T offload(Callable<T> hashing) {
+    long submitted = System.nanoTime();
+    Future<T> future;
+    try {
+      future = executor.submit(() -> {
+        waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+        return hashTimer.recordCallable(hashing);
+      });
+    }
+    catch (RejectedExecutionException e) {
+      rejectedCounter.increment();
+      throw new PasswordVerificationRejectedException(retryAfterSeconds);
+    }
+    try {
+      return future.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread()
+            .interrupt();
+      future.cancel(true);
+      throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+    }
+    catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdownNow();
+  }
+}
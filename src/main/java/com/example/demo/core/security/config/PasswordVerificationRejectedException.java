@@ -0,0 +1,18 @@
+package com.example.demo.core.security.config;
+
+import lombok.Getter;
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * Thrown when the password hashing executor is saturated. Mapped to 503 with a Retry-After header.
+ */
+@Getter
+public class PasswordVerificationRejectedException extends AuthenticationServiceException {
+
+  private final long retryAfterSeconds;
+
+  public PasswordVerificationRejectedException(long retryAfterSeconds) {
+    super("Password verification capacity exceeded");
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+}
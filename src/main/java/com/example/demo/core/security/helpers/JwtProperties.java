@@ -16,7 +16,9 @@ import org.springframework.stereotype.Component;
 public class JwtProperties {
 
   private long expirationMillis;
+  private long refreshExpirationMillis;
   private String issuer;
   private String secret;
+  private boolean statelessPrincipal;
 
 }
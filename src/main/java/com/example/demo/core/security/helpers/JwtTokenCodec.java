@@ -0,0 +1,133 @@
+package com.example.demo.core.security.helpers;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Signs and parses the JWTs of both security filters.
+ *
+ * The signing key and the parser are built once from {@link JwtProperties} and shared, both are immutable and
+ * thread-safe. Tokens that are structurally broken or already expired are rejected by looking at the raw token and
+ * the {@code exp} claim of the payload, before any signature check or full claims parsing happens.
+ */
+@Component
+public class JwtTokenCodec {
+
+  private static final byte[] EXP_CLAIM = "\"exp\":".getBytes(StandardCharsets.US_ASCII);
+
+  private final long expirationMillis;
+  private final String issuer;
+  private final Key signingKey;
+  private final JwtParser parser;
+
+  public JwtTokenCodec(JwtProperties jwtProperties) {
+    this.expirationMillis = jwtProperties.getExpirationMillis();
+    this.issuer = jwtProperties.getIssuer();
+    this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtProperties.getSecret()));
+    this.parser = Jwts.parserBuilder()
+                      .setSigningKey(signingKey)
+                      .build();
+  }
+
+  public String encode(Map<String, Object> claims) {
+    long now = System.currentTimeMillis();
+    return Jwts.builder()
+               .setClaims(claims)
+               .setIssuedAt(new Date(now))
+               .setExpiration(new Date(now + expirationMillis))
+               .setIssuer(issuer)
+               .signWith(signingKey)
+               .compact();
+  }
+
+  /**
+   * Verifies the signature and returns the claims, or an empty result if the token is rejected early.
+   * Tokens that pass the early checks but are invalid otherwise still throw the usual {@code JwtException}.
+   */
+  public Optional<Claims> decode(String token) {
+    if (isRejectedEarly(token)) {
+      return Optional.empty();
+    }
+    return Optional.of(parser.parseClaimsJws(token)
+                             .getBody());
+  }
+
+  public boolean isRejectedEarly(String token) {
+    int firstDot = token.indexOf('.');
+    int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+    if (firstDot <= 0 || secondDot <= firstDot + 1 || secondDot == token.length() - 1
+        || token.indexOf('.', secondDot + 1) >= 0) {
+      return true;
+    }
+    byte[] payload;
+    try {
+      payload = Base64.getUrlDecoder()
+                      .decode(token.substring(firstDot + 1, secondDot));
+    }
+    catch (IllegalArgumentException e) {
+      return true;
+    }
+    long exp = readExp(payload);
+    return exp >= 0 && System.currentTimeMillis() > exp * 1000;
+  }
+
+  // Sucht "exp":<Sekunden> direkt im Payload, ohne JSON-Parser. Nur Schlüssel auf oberster Ebene zählen, Rollennamen
+  // in den verschachtelten Claims sind frei wählbar. -1 wenn kein exp vorhanden ist.
+  private static long readExp(byte[] payload) {
+    int depth = 0;
+    boolean inString = false;
+    for (int i = 0; i < payload.length; i++) {
+      byte b = payload[i];
+      if (inString) {
+        if (b == '\\') {
+          i++;
+        } else if (b == '"') {
+          inString = false;
+        }
+      } else if (b == '"') {
+        if (depth == 1 && startsWith(payload, i, EXP_CLAIM)) {
+          return readSeconds(payload, i + EXP_CLAIM.length);
+        }
+        inString = true;
+      } else if (b == '{' || b == '[') {
+        depth++;
+      } else if (b == '}' || b == ']') {
+        depth--;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean startsWith(byte[] payload, int offset, byte[] prefix) {
+    if (offset + prefix.length > payload.length) {
+      return false;
+    }
+    for (int j = 0; j < prefix.length; j++) {
+      if (payload[offset + j] != prefix[j]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long readSeconds(byte[] payload, int offset) {
+    if (offset >= payload.length || payload[offset] < '0' || payload[offset] > '9') {
+      return -1;
+    }
+    long value = 0;
+    for (int k = offset; k < payload.length && payload[k] >= '0' && payload[k] <= '9'; k++) {
+      value = value * 10 + (payload[k] - '0');
+    }
+    return value;
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.core.security.helpers;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("password-verification")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class PasswordVerificationProperties {
+
+  // 0 = Anzahl CPU-Kerne
+  private int threads;
+  private int queueCapacity = 64;
+  private long retryAfterSeconds = 1;
+
+}
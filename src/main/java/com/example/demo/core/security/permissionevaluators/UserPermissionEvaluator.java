@@ -1,8 +1,7 @@
 package com.example.demo.core.security.permissionevaluators;
 
-import com.example.demo.domain.role.Role;
-import com.example.demo.domain.user.User;
-import com.example.demo.domain.userprofile.UserProfileRepository;
+import com.example.demo.domain.user.UserDetailsImpl;
+import com.example.demo.domain.userprofile.ProfileOwnershipIndex;
 import org.springframework.stereotype.Component;
 
 import java.util.UUID;
@@ -10,64 +9,83 @@ import java.util.UUID;
 @Component
 public class UserPermissionEvaluator {
 
-    private final UserProfileRepository userProfileRepository;
+    private final ProfileOwnershipIndex profileOwnershipIndex;
 
-    public UserPermissionEvaluator(UserProfileRepository userProfileRepository) {
-        this.userProfileRepository = userProfileRepository;
+    public UserPermissionEvaluator(ProfileOwnershipIndex profileOwnershipIndex) {
+        this.profileOwnershipIndex = profileOwnershipIndex;
     }
 
     // ---- UC1: Create Profile ----
-    public boolean canCreateProfile(User principal) {
-        return principal != null && hasUserRole(principal);
+    public boolean canCreateProfile(UserDetailsImpl principal) {
+        return hasUserRole(principal);
     }
 
     // ---- UC2: Own Profile Operations ----
-    public boolean canAccessOwnProfile(User principal) {
-        return principal != null && hasUserRole(principal);
+    public boolean canAccessOwnProfile(UserDetailsImpl principal) {
+        return hasUserRole(principal);
     }
 
-    public boolean canModifyOwnProfile(User principal) {
-        return principal != null && hasUserRole(principal);
+    public boolean canModifyOwnProfile(UserDetailsImpl principal) {
+        return hasUserRole(principal);
     }
 
-    public boolean canDeleteOwnProfile(User principal) {
-        return principal != null && hasUserRole(principal);
+    public boolean canDeleteOwnProfile(UserDetailsImpl principal) {
+        return hasUserRole(principal);
     }
 
     // ---- UC3 + UC5: Profile by ID Operations ----
-    public boolean canAccessProfile(User principal, UUID profileId) {
-        if (isAdmin(principal)) {
-            return true;
-        }
+    // Lesen und Ändern verwenden das Profil danach; ein bedingtes GET (If-None-Match) braucht nur die Version
+    public boolean canAccessProfile(UserDetailsImpl principal, UUID profileId, String ifNoneMatch) {
+        return isOwnerOrAdmin(principal, profileId, ifNoneMatch == null);
+    }
 
-        return userProfileRepository.findById(profileId)
-                .map(profile -> profile.isOwnedBy(principal))
-                .orElse(false);
+    public boolean canModifyProfile(UserDetailsImpl principal, UUID profileId) {
+        return isOwnerOrAdmin(principal, profileId, true);
     }
 
-    public boolean canModifyProfile(User principal, UUID profileId) {
-        return canAccessProfile(principal, profileId);
+    public boolean canDeleteProfile(UserDetailsImpl principal, UUID profileId) {
+        return isOwnerOrAdmin(principal, profileId, false);
     }
 
     // ---- UC4: Search Profiles ----
-    public boolean canSearchProfiles(User principal) {
+    public boolean canSearchProfiles(UserDetailsImpl principal) {
         return isAdmin(principal);
     }
 
-    // ---- Helper Methods ----
-    private boolean hasUserRole(User principal) {
-        if (principal == null) return false;
+    // ---- UC3: Bulk Import ----
+    public boolean canImportProfiles(UserDetailsImpl principal) {
+        return isAdmin(principal);
+    }
+
+    // ---- UC3: Bulk Update/Delete ----
+    public boolean canBulkModifyProfiles(UserDetailsImpl principal) {
+        return isAdmin(principal);
+    }
+
+    // ---- Second-Level-Cache der Rollen leeren ----
+    public boolean canEvictReferenceDataCache(UserDetailsImpl principal) {
+        return isAdmin(principal);
+    }
 
-        return principal.getRoles().stream()
-                .map(Role::getName)
-                .anyMatch(name -> name.equals("ROLE_USER") || name.equals("USER"));
+    // ---- Helper Methods ----
+    // Rollen werden beim Aufbau des Principals einmalig vorberechnet (PermissionSet)
+    private boolean hasUserRole(UserDetailsImpl principal) {
+        return principal != null && principal.permissions().hasUserRole();
     }
 
-    private boolean isAdmin(User principal) {
+    private boolean isOwnerOrAdmin(UserDetailsImpl principal, UUID profileId, boolean preload) {
         if (principal == null) return false;
+        if (isAdmin(principal)) {
+            return true;
+        }
+
+        return (preload ? profileOwnershipIndex.findOwnerIdPreloading(profileId)
+                : profileOwnershipIndex.findOwnerId(profileId))
+                .map(ownerId -> ownerId.equals(principal.user().getId()))
+                .orElse(false);
+    }
 
-        return principal.getRoles().stream()
-                .map(Role::getName)
-                .anyMatch(name -> name.equals("ADMIN"));
+    private boolean isAdmin(UserDetailsImpl principal) {
+        return principal != null && principal.permissions().isAdmin();
     }
-}
\ No newline at end of file
+}
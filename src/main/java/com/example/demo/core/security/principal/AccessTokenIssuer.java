@@ -0,0 +1,34 @@
+package com.example.demo.core.security.principal;
+
+import com.example.demo.core.security.helpers.JwtTokenCodec;
+import com.example.demo.domain.user.User;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+
+/**
+ * Issues access tokens for a user, used by the login filter and by the refresh endpoint.
+ */
+@Component
+public class AccessTokenIssuer {
+
+  private final JwtTokenCodec jwtTokenCodec;
+  private final SecurityEpochRegistry securityEpochRegistry;
+
+  public AccessTokenIssuer(JwtTokenCodec jwtTokenCodec, SecurityEpochRegistry securityEpochRegistry) {
+    this.jwtTokenCodec = jwtTokenCodec;
+    this.securityEpochRegistry = securityEpochRegistry;
+  }
+
+  /**
+   * Must be called before the user is loaded, the result is passed to {@link #issue}
+   */
+  public long snapshot() {
+    return securityEpochRegistry.snapshot();
+  }
+
+  public String issue(User user, long snapshot) {
+    Map<String, Object> claims = PrincipalClaims.of(user, securityEpochRegistry.currentAsOf(user.getId(), snapshot));
+    claims.put("sub", user.getId());
+    return jwtTokenCodec.encode(claims);
+  }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.core.security.principal;
+
+import com.example.demo.domain.authority.Authority;
+import com.example.demo.domain.authority.AuthorityCode;
+import com.example.demo.domain.role.Role;
+import com.example.demo.domain.user.User;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Immutable roles and authorities of a principal, computed once when the principal is built.
+ *
+ * Known authorities are kept in a bitmask indexed by {@link AuthorityCode} and map to shared
+ * {@link GrantedAuthority} instances, so the checks used in {@code @PreAuthorize} expressions neither stream over
+ * the roles nor allocate.
+ */
+public final class PermissionSet {
+
+  private static final String ROLE_ADMIN = "ADMIN";
+  private static final String ROLE_USER = "USER";
+  private static final String ROLE_USER_PREFIXED = "ROLE_USER";
+
+  private final long authorityMask;
+  private final Set<String> extraAuthorities;
+  private final boolean admin;
+  private final boolean user;
+  private final List<GrantedAuthority> grantedAuthorities;
+
+  private PermissionSet(long authorityMask, Set<String> extraAuthorities, boolean admin, boolean user) {
+    this.authorityMask = authorityMask;
+    this.extraAuthorities = Set.copyOf(extraAuthorities);
+    this.admin = admin;
+    this.user = user;
+
+    List<GrantedAuthority> authorities = new ArrayList<>();
+    long bits = authorityMask;
+    while (bits != 0) {
+      authorities.add(AuthorityCode.ofBit(Long.numberOfTrailingZeros(bits))
+                                   .grantedAuthority());
+      bits &= bits - 1;
+    }
+    extraAuthorities.forEach(name -> authorities.add(new SimpleGrantedAuthority(name)));
+    this.grantedAuthorities = List.copyOf(authorities);
+  }
+
+  public static PermissionSet of(User principal) {
+    long mask = 0;
+    Set<String> extras = new HashSet<>();
+    boolean admin = false;
+    boolean user = false;
+    for (Role role : principal.getRoles()) {
+      String roleName = role.getName();
+      admin |= ROLE_ADMIN.equals(roleName);
+      user |= ROLE_USER.equals(roleName) || ROLE_USER_PREFIXED.equals(roleName);
+      for (Authority authority : role.getAuthorities()) {
+        AuthorityCode code = AuthorityCode.of(authority.getName());
+        if (code != null) {
+          mask |= code.bit();
+        } else {
+          extras.add(authority.getName());
+        }
+      }
+    }
+    return new PermissionSet(mask, extras, admin, user);
+  }
+
+  public boolean isAdmin() {
+    return admin;
+  }
+
+  public boolean hasUserRole() {
+    return user;
+  }
+
+  public boolean hasAuthority(AuthorityCode code) {
+    return (authorityMask & code.bit()) != 0;
+  }
+
+  public boolean hasAuthority(String authorityName) {
+    AuthorityCode code = AuthorityCode.of(authorityName);
+    return code != null ? hasAuthority(code) : extraAuthorities.contains(authorityName);
+  }
+
+  public List<GrantedAuthority> getAuthorities() {
+    return grantedAuthorities;
+  }
+}
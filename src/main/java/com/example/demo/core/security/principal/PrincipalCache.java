@@ -0,0 +1,51 @@
+package com.example.demo.core.security.principal;
+
+import com.example.demo.domain.user.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of authenticated principals keyed by user id.
+ *
+ * Entries expire after a fixed time and are evicted by size. Updating or deleting a user, or changing a role, has
+ * to invalidate the affected entries explicitly. Hit, miss and eviction counters are published as
+ * {@code cache.*} meters with the tag {@code cache=principalCache}.
+ */
+@Component
+public class PrincipalCache {
+
+  private final Cache<UUID, PrincipalSnapshot> cache;
+
+  public PrincipalCache(PrincipalCacheProperties properties, MeterRegistry meterRegistry) {
+    this.cache = Caffeine.newBuilder()
+                         .maximumSize(properties.getMaximumSize())
+                         .expireAfterWrite(Duration.ofMillis(properties.getExpireAfterWriteMillis()))
+                         .recordStats()
+                         .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "principalCache");
+  }
+
+  public User get(UUID userId, Function<UUID, User> loader) {
+    return cache.get(userId, id -> PrincipalSnapshot.of(loader.apply(id)))
+                .toUser();
+  }
+
+  public void invalidate(UUID userId) {
+    cache.invalidate(userId);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+}
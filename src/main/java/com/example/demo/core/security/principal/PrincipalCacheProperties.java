@@ -0,0 +1,21 @@
+package com.example.demo.core.security.principal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("principal-cache")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class PrincipalCacheProperties {
+
+  private long maximumSize = 10_000;
+  private long expireAfterWriteMillis = 60_000;
+
+}
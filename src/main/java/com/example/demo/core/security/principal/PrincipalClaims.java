@@ -0,0 +1,98 @@
+package com.example.demo.core.security.principal;
+
+import com.example.demo.domain.authority.Authority;
+import com.example.demo.domain.authority.AuthorityCode;
+import com.example.demo.domain.role.Role;
+import com.example.demo.domain.user.User;
+import io.jsonwebtoken.Claims;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Writes and reads the principal snapshot carried inside a token.
+ *
+ * The snapshot contains the email, the roles with their authorities and the security epoch of the user. It is
+ * enough to rebuild a {@link User} for the authorization checks without touching the database.
+ *
+ * Authorities are encoded as a bitmask per role, see {@link AuthorityCode}. Authorities without a code are listed by
+ * name in a separate claim, which is only written when such authorities exist. Tokens with another encoding version
+ * are treated as if they carried no snapshot.
+ */
+public final class PrincipalClaims {
+
+  public static final String EMAIL = "email";
+  public static final String VERSION = "pv";
+  public static final String ROLES = "pr";
+  public static final String EXTRA_AUTHORITIES = "px";
+  public static final String EPOCH = "epoch";
+
+  private PrincipalClaims() {
+  }
+
+  public static Map<String, Object> of(User user, long epoch) {
+    Map<String, Long> roles = new LinkedHashMap<>();
+    Map<String, List<String>> extras = new LinkedHashMap<>();
+    for (Role role : user.getRoles()) {
+      long mask = 0;
+      for (Authority authority : role.getAuthorities()) {
+        AuthorityCode code = AuthorityCode.of(authority.getName());
+        if (code != null) {
+          mask |= code.bit();
+        } else {
+          extras.computeIfAbsent(role.getName(), name -> new ArrayList<>())
+                .add(authority.getName());
+        }
+      }
+      roles.put(role.getName(), mask);
+    }
+
+    Map<String, Object> claims = new HashMap<>();
+    claims.put(EMAIL, user.getEmail());
+    claims.put(VERSION, AuthorityCode.VERSION);
+    claims.put(ROLES, roles);
+    claims.put(EPOCH, epoch);
+    if (!extras.isEmpty()) {
+      claims.put(EXTRA_AUTHORITIES, extras);
+    }
+    return claims;
+  }
+
+  public static boolean isPresent(Claims claims) {
+    Object version = claims.get(VERSION);
+    return claims.get(EPOCH) != null && claims.get(ROLES) != null && version instanceof Number number
+        && number.intValue() == AuthorityCode.VERSION;
+  }
+
+  public static long epoch(Claims claims) {
+    return ((Number) claims.get(EPOCH)).longValue();
+  }
+
+  @SuppressWarnings("unchecked")
+  public static User toUser(UUID userId, Claims claims) {
+    Map<String, Number> roleClaims = (Map<String, Number>) claims.get(ROLES);
+    Map<String, List<String>> extraClaims = (Map<String, List<String>>) claims.get(EXTRA_AUTHORITIES);
+    Set<Role> roles = new HashSet<>();
+    roleClaims.forEach((roleName, mask) -> {
+      Set<Authority> authorities = new HashSet<>();
+      long bits = mask.longValue();
+      while (bits != 0) {
+        int index = Long.numberOfTrailingZeros(bits);
+        authorities.add(new Authority(null, AuthorityCode.ofBit(index)
+                                                         .name()));
+        bits &= bits - 1;
+      }
+      if (extraClaims != null && extraClaims.containsKey(roleName)) {
+        extraClaims.get(roleName)
+                   .forEach(name -> authorities.add(new Authority(null, name)));
+      }
+      roles.add(new Role(null, roleName, authorities));
+    });
+    return new User(userId, null, null, claims.get(EMAIL, String.class), null, roles);
+  }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.core.security.principal;
+
+import com.example.demo.domain.authority.Authority;
+import com.example.demo.domain.role.Role;
+import com.example.demo.domain.user.User;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable copy of the security relevant parts of a {@link User}.
+ *
+ * The password is deliberately not part of the snapshot, the principal of an already authenticated request never
+ * needs it.
+ */
+public record PrincipalSnapshot(UUID id, String firstName, String lastName, String email, List<RoleEntry> roles) {
+
+  public record RoleEntry(UUID id, String name, List<AuthorityEntry> authorities) {
+  }
+
+  public record AuthorityEntry(UUID id, String name) {
+  }
+
+  public static PrincipalSnapshot of(User user) {
+    List<RoleEntry> roles = user.getRoles()
+                                .stream()
+                                .map(PrincipalSnapshot::toEntry)
+                                .toList();
+    return new PrincipalSnapshot(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(), roles);
+  }
+
+  private static RoleEntry toEntry(Role role) {
+    List<AuthorityEntry> authorities = role.getAuthorities()
+                                           .stream()
+                                           .map(a -> new AuthorityEntry(a.getId(), a.getName()))
+                                           .toList();
+    return new RoleEntry(role.getId(), role.getName(), authorities);
+  }
+
+  public User toUser() {
+    Set<Role> userRoles = new HashSet<>();
+    for (RoleEntry role : roles) {
+      Set<Authority> authorities = new HashSet<>();
+      role.authorities()
+          .forEach(a -> authorities.add(new Authority(a.id(), a.name())));
+      userRoles.add(new Role(role.id(), role.name(), authorities));
+    }
+    return new User(id, firstName, lastName, email, null, userRoles);
+  }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.core.security.principal;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory table of per-user security epochs.
+ *
+ * Every token carries the epoch of its user at issue time. Whenever the roles of a user change or the user is
+ * deleted the epoch is bumped, so tokens issued before the change no longer match and the authorization filter
+ * falls back to loading the user from the database. The sequence is seeded with the boot time, which means that
+ * tokens issued before a restart never match either.
+ *
+ * A token must carry the epoch that was current when its roles were loaded, not when it is signed. Callers take a
+ * {@link #snapshot()} before loading the user and resolve the epoch with {@link #currentAsOf}.
+ */
+@Component
+public class SecurityEpochRegistry {
+
+  private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+  private final Map<UUID, Long> userEpochs = new ConcurrentHashMap<>();
+  private final AtomicLong globalEpoch = new AtomicLong(sequence.get());
+
+  public long current(UUID userId) {
+    Long userEpoch = userEpochs.get(userId);
+    long global = globalEpoch.get();
+    return userEpoch == null ? global : Math.max(userEpoch, global);
+  }
+
+  /**
+   * Position of the epoch sequence, to be read before the user is loaded for a new token
+   */
+  public long snapshot() {
+    return sequence.get();
+  }
+
+  /**
+   * Epoch for a token built from a user that was loaded after {@code snapshot} was taken. If the user was bumped in
+   * between, the loaded roles may already be outdated; the snapshot is returned then, which is lower than every
+   * later epoch and therefore never matches.
+   */
+  public long currentAsOf(UUID userId, long snapshot) {
+    return Math.min(current(userId), snapshot);
+  }
+
+  public boolean isCurrent(UUID userId, long epoch) {
+    return current(userId) == epoch;
+  }
+
+  // Bei gleichzeitigen Bumps darf die kleinere Epoche nicht zuletzt geschrieben werden
+  public void bump(UUID userId) {
+    userEpochs.merge(userId, sequence.incrementAndGet(), Math::max);
+  }
+
+  public void bumpAll() {
+    long epoch = sequence.incrementAndGet();
+    globalEpoch.accumulateAndGet(epoch, Math::max);
+    userEpochs.values().removeIf(userEpoch -> userEpoch <= epoch);
+  }
+}
@@ -0,0 +1,107 @@
+package com.example.demo.core.security.ratelimit;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.Arrays;
+
+/**
+ * Reads the first bytes of the request body up front and replays them, followed by the rest of the original stream,
+ * to the filters and the controller that come later.
+ *
+ * Non-blocking reads are supported: a body that fit into the head is complete in memory and the listener is called
+ * right away, otherwise the listener is registered on the original stream.
+ */
+public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+  private final byte[] head;
+  private final ServletInputStream original;
+  private final boolean complete;
+  private final ByteArrayInputStream headStream;
+  private final InputStream stream;
+
+  public CachedBodyHttpServletRequest(HttpServletRequest request, int maxHeadBytes) throws IOException {
+    super(request);
+    this.original = request.getInputStream();
+    int contentLength = request.getContentLength();
+    if (contentLength >= 0 && contentLength <= maxHeadBytes) {
+      this.head = readFully(original, contentLength);
+      this.complete = true;
+    } else {
+      this.head = original.readNBytes(maxHeadBytes);
+      // readNBytes liefert weniger als verlangt nur am Ende des Streams
+      this.complete = head.length < maxHeadBytes;
+    }
+    this.headStream = new ByteArrayInputStream(head);
+    this.stream = new SequenceInputStream(headStream, original);
+  }
+
+  // Mit bekannter Länge wird genau einmal in einen passenden Puffer gelesen
+  private static byte[] readFully(InputStream in, int length) throws IOException {
+    byte[] buffer = new byte[length];
+    int offset = 0;
+    while (offset < length) {
+      int read = in.read(buffer, offset, length - offset);
+      if (read < 0) {
+        return Arrays.copyOf(buffer, offset);
+      }
+      offset += read;
+    }
+    return buffer;
+  }
+
+  public byte[] head() {
+    return head;
+  }
+
+  @Override
+  public ServletInputStream getInputStream() {
+    return new ServletInputStream() {
+      private boolean finished;
+
+      @Override
+      public int read() throws IOException {
+        int b = stream.read();
+        finished = b < 0;
+        return b;
+      }
+
+      @Override
+      public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = stream.read(buffer, offset, length);
+        finished = read < 0;
+        return read;
+      }
+
+      @Override
+      public boolean isFinished() {
+        return finished;
+      }
+
+      @Override
+      public boolean isReady() {
+        return complete || headStream.available() > 0 || original.isReady();
+      }
+
+      @Override
+      public void setReadListener(ReadListener readListener) {
+        if (!complete) {
+          original.setReadListener(readListener);
+          return;
+        }
+        try {
+          readListener.onDataAvailable();
+          readListener.onAllDataRead();
+        }
+        catch (IOException | RuntimeException e) {
+          readListener.onError(e);
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.core.security.ratelimit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Finds the value of the top-level {@code "email"} field in a small JSON body without a JSON parser.
+ */
+public final class EmailField {
+
+  private static final byte[] NAME = "\"email\"".getBytes(StandardCharsets.US_ASCII);
+
+  private EmailField() {
+  }
+
+  /**
+   * @return the lower-cased email, or {@code null} if the body has no plain string value for it
+   */
+  public static String read(byte[] body) {
+    outer:
+    for (int i = 0; i <= body.length - NAME.length; i++) {
+      for (int j = 0; j < NAME.length; j++) {
+        if (body[i + j] != NAME[j]) {
+          continue outer;
+        }
+      }
+      int k = skipWhitespace(body, i + NAME.length);
+      if (k >= body.length || body[k] != ':') {
+        continue;
+      }
+      k = skipWhitespace(body, k + 1);
+      if (k >= body.length || body[k] != '"') {
+        return null;
+      }
+      int start = k + 1;
+      int end = start;
+      while (end < body.length && body[end] != '"') {
+        // Escapes kommen in gültigen Adressen praktisch nicht vor, solche Werte werden nicht limitiert
+        if (body[end] == '\\') {
+          return null;
+        }
+        end++;
+      }
+      if (end >= body.length || end == start) {
+        return null;
+      }
+      return new String(body, start, end - start, StandardCharsets.UTF_8).trim()
+                                                                          .toLowerCase(Locale.ROOT);
+    }
+    return null;
+  }
+
+  private static int skipWhitespace(byte[] body, int index) {
+    while (index < body.length && (body[index] == ' ' || body[index] == '\t' || body[index] == '\r'
+        || body[index] == '\n')) {
+      index++;
+    }
+    return index;
+  }
+}
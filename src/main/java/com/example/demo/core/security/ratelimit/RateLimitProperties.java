@@ -0,0 +1,36 @@
+package com.example.demo.core.security.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("rate-limit")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class RateLimitProperties {
+
+  private boolean enabled = true;
+  private long idleMillis = 600_000;
+  private int maxKeys = 100_000;
+  private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+  @NoArgsConstructor
+  @Getter
+  @Setter
+  public static class Endpoint {
+
+    private String path;
+    private int capacity = 10;
+    private int refillPerMinute = 10;
+    private boolean perEmail = true;
+
+  }
+}
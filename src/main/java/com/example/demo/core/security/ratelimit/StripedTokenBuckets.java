@@ -0,0 +1,138 @@
+package com.example.demo.core.security.ratelimit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets keyed by an arbitrary string, e.g. a client IP or an email address.
+ *
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (the GCRA formulation of a token
+ * bucket), so acquiring a token is one CAS without locks. Keys are spread over independent stripes. Buckets that
+ * stayed idle long enough to be full again carry no information and are evicted: a random sample of the calls
+ * sweeps one stripe, and a stripe that reaches its key limit is swept before a new key is added, at most once per
+ * {@link #FULL_SWEEP_INTERVAL_NANOS}. A new key that finds its stripe still full evicts the bucket with the oldest
+ * arrival time among a few sampled ones. That bucket is the closest to full, so rotating keys cannot grow the map
+ * beyond {@code maxKeys}, and they push out their own single-use buckets long before a throttled one. The number of
+ * evictions is available through {@link #evictions()}.
+ */
+public class StripedTokenBuckets {
+
+  private static final int STRIPES = 16;
+  private static final int SWEEP_SAMPLE = 256;
+  private static final long FULL_SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+  private static final int EVICTION_SAMPLE = 8;
+
+  private static final class Stripe {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastFullSweepNanos;
+
+    private Stripe(long nowNanos) {
+      this.lastFullSweepNanos = new AtomicLong(nowNanos - FULL_SWEEP_INTERVAL_NANOS);
+    }
+  }
+
+  private final Stripe[] stripes = new Stripe[STRIPES];
+  private final long emissionIntervalNanos;
+  private final long burstToleranceNanos;
+  private final long idleNanos;
+  private final int maxKeysPerStripe;
+  private final AtomicInteger sweepCursor = new AtomicInteger();
+  private final LongAdder evictions = new LongAdder();
+
+  public StripedTokenBuckets(int capacity, int refillPerMinute, long idleMillis, int maxKeys) {
+    this.emissionIntervalNanos = 60_000_000_000L / refillPerMinute;
+    this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+    this.idleNanos = Math.max(idleMillis * 1_000_000L, emissionIntervalNanos * capacity);
+    this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+    long now = System.nanoTime();
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new Stripe(now);
+    }
+  }
+
+  /**
+   * @return 0 if a token was taken, otherwise the nanoseconds until the next token becomes available
+   */
+  public long tryAcquire(String key, long nowNanos) {
+    Stripe stripe = stripes[spread(key.hashCode())];
+    AtomicLong bucket = stripe.buckets.get(key);
+    if (bucket == null) {
+      if (stripe.buckets.size() >= maxKeysPerStripe && !sweepFull(stripe, nowNanos)) {
+        evictOldest(stripe);
+      }
+      bucket = stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+    }
+    if (ThreadLocalRandom.current()
+                         .nextInt(SWEEP_SAMPLE) == 0) {
+      sweep(stripes[sweepCursor.getAndIncrement() & (STRIPES - 1)], nowNanos);
+    }
+
+    while (true) {
+      long tat = bucket.get();
+      long start = Math.max(tat, nowNanos);
+      long wait = start - nowNanos - burstToleranceNanos;
+      if (wait > 0) {
+        return wait;
+      }
+      if (bucket.compareAndSet(tat, start + emissionIntervalNanos)) {
+        return 0;
+      }
+    }
+  }
+
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      size += stripe.buckets.size();
+    }
+    return size;
+  }
+
+  public long evictions() {
+    return evictions.sum();
+  }
+
+  // Ein voller Stripe wird höchstens einmal pro Intervall durchsucht, sonst zahlt jeder neue Key den ganzen Sweep
+  private boolean sweepFull(Stripe stripe, long nowNanos) {
+    long last = stripe.lastFullSweepNanos.get();
+    if (nowNanos - last >= FULL_SWEEP_INTERVAL_NANOS && stripe.lastFullSweepNanos.compareAndSet(last, nowNanos)) {
+      sweep(stripe, nowNanos);
+    }
+    return stripe.buckets.size() < maxKeysPerStripe;
+  }
+
+  // Nur eine Stichprobe statt des ganzen Stripes, damit ein neuer Key auch bei vollem Stripe wenig kostet
+  private void evictOldest(Stripe stripe) {
+    Map.Entry<String, AtomicLong> oldest = null;
+    long oldestTat = Long.MAX_VALUE;
+    Iterator<Map.Entry<String, AtomicLong>> entries = stripe.buckets.entrySet()
+                                                                    .iterator();
+    for (int i = 0; i < EVICTION_SAMPLE && entries.hasNext(); i++) {
+      Map.Entry<String, AtomicLong> entry = entries.next();
+      long tat = entry.getValue()
+                      .get();
+      if (tat < oldestTat) {
+        oldest = entry;
+        oldestTat = tat;
+      }
+    }
+    if (oldest != null && stripe.buckets.remove(oldest.getKey(), oldest.getValue())) {
+      evictions.increment();
+    }
+  }
+
+  private void sweep(Stripe stripe, long nowNanos) {
+    stripe.buckets.values()
+                  .removeIf(bucket -> nowNanos - bucket.get() > idleNanos);
+  }
+
+  private static int spread(int hash) {
+    return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+  }
+}
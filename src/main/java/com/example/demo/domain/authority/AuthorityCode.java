@@ -0,0 +1,54 @@
+package com.example.demo.domain.authority;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Bit positions of the authorities seeded in {@code data.sql}, used for the compact token encoding.
+ *
+ * New authorities must be appended at the end. Reordering or removing a constant changes the meaning of issued
+ * tokens and requires a new {@link #VERSION}.
+ */
+public enum AuthorityCode {
+  USER_READ_ALL,
+  USER_CREATE_ALL,
+  USER_MODIFY_ALL,
+  USER_DELETE_ALL,
+  USER_READ_OWN,
+  USER_MODIFY_OWN,
+  USER_DELETE_OWN;
+
+  public static final int VERSION = 1;
+
+  private static final AuthorityCode[] CODES = values();
+  private static final Map<String, AuthorityCode> BY_NAME = new HashMap<>();
+
+  static {
+    for (AuthorityCode code : CODES) {
+      BY_NAME.put(code.name(), code);
+    }
+  }
+
+  private final GrantedAuthority grantedAuthority = new SimpleGrantedAuthority(name());
+
+  public long bit() {
+    return 1L << ordinal();
+  }
+
+  public GrantedAuthority grantedAuthority() {
+    return grantedAuthority;
+  }
+
+  /**
+   * @return the code of the authority or {@code null} if the authority is not part of the seeded set
+   */
+  public static AuthorityCode of(String authorityName) {
+    return BY_NAME.get(authorityName);
+  }
+
+  public static AuthorityCode ofBit(int index) {
+    return CODES[index];
+  }
+}
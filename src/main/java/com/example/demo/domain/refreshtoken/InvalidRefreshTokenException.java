@@ -0,0 +1,8 @@
+package com.example.demo.domain.refreshtoken;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+
+  public InvalidRefreshTokenException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,58 @@
+package com.example.demo.domain.refreshtoken;
+
+import com.example.demo.core.generic.AbstractEntity;
+import com.example.demo.domain.user.User;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+/**
+ * A refresh token, stored only as SHA-256 hash.
+ *
+ * All tokens created by rotating the token of one login share a family. Presenting a token that was already used
+ * revokes the whole family.
+ */
+@Entity
+@Table(name = "refresh_token")
+@NoArgsConstructor
+@Getter
+@Setter
+@Accessors(chain = true)
+public class RefreshToken extends AbstractEntity {
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "id_user", referencedColumnName = "id", nullable = false)
+  private User user;
+
+  @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+  private String tokenHash;
+
+  @Column(name = "family_id", columnDefinition = "uuid", nullable = false)
+  private UUID familyId;
+
+  @Column(name = "expires_at", nullable = false)
+  private Instant expiresAt;
+
+  @Column(name = "used", nullable = false)
+  private boolean used;
+
+  @Column(name = "revoked", nullable = false)
+  private boolean revoked;
+
+  public RefreshToken(UUID id, User user, String tokenHash, UUID familyId, Instant expiresAt) {
+    super(id);
+    this.user = user;
+    this.tokenHash = tokenHash;
+    this.familyId = familyId;
+    this.expiresAt = expiresAt;
+  }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.domain.refreshtoken;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes expired refresh tokens periodically.
+ *
+ * Every refresh stores a new token and only marks the old one as used, so without this job the table would grow
+ * with every access token renewal.
+ */
+@Log4j2
+@Component
+public class RefreshTokenCleanup {
+
+  private final RefreshTokenService refreshTokenService;
+
+  public RefreshTokenCleanup(RefreshTokenService refreshTokenService) {
+    this.refreshTokenService = refreshTokenService;
+  }
+
+  @Scheduled(initialDelayString = "${jwt.refreshCleanupIntervalMillis:3600000}",
+             fixedDelayString = "${jwt.refreshCleanupIntervalMillis:3600000}")
+  public void deleteExpired() {
+    int deleted = refreshTokenService.deleteExpired();
+    if (deleted > 0) {
+      log.info("Deleted {} expired refresh tokens", deleted);
+    }
+  }
+}
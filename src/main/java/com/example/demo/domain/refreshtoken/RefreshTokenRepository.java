@@ -0,0 +1,36 @@
+package com.example.demo.domain.refreshtoken;
+
+import com.example.demo.core.generic.AbstractRepository;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RefreshTokenRepository extends AbstractRepository<RefreshToken> {
+
+  @EntityGraph(attributePaths = "user")
+  Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+  // Bedingtes Update: nur einer von zwei gleichzeitigen Refreshes mit demselben Token gewinnt
+  @Modifying
+  @Query("UPDATE RefreshToken t SET t.used = true WHERE t.id = :id AND t.used = false AND t.revoked = false")
+  int markUsed(@Param("id") UUID id);
+
+  @Modifying
+  @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.familyId = :familyId")
+  int revokeFamily(@Param("familyId") UUID familyId);
+
+  @Modifying
+  @Query("DELETE FROM RefreshToken t WHERE t.user.id = :userId")
+  int deleteByUserId(@Param("userId") UUID userId);
+
+  // Verwendete und widerrufene Tokens bleiben bis zum Ablauf, damit eine Wiederverwendung erkannt wird
+  @Modifying
+  @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+  int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,33 @@
+package com.example.demo.domain.refreshtoken;
+
+import com.example.demo.core.generic.AbstractService;
+import com.example.demo.domain.user.User;
+import java.util.UUID;
+
+public interface RefreshTokenService extends AbstractService<RefreshToken> {
+
+  String HEADER = "X-Refresh-Token";
+
+  /**
+   * Starts a new token family for a fresh login and returns the raw token.
+   */
+  String issue(User user);
+
+  /**
+   * Consumes the given token and returns its successor in the same family.
+   *
+   * @throws InvalidRefreshTokenException if the token is unknown, expired or revoked, or was already used. In the
+   *                                      last case the whole family is revoked.
+   */
+  Rotation rotate(String rawToken) throws InvalidRefreshTokenException;
+
+  void deleteAllOfUser(UUID userId);
+
+  /**
+   * Deletes all expired tokens, whether used, revoked or still unused, and returns their number.
+   */
+  int deleteExpired();
+
+  record Rotation(User user, String refreshToken) {
+  }
+}
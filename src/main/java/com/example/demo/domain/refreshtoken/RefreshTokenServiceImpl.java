@@ -0,0 +1,100 @@
+package com.example.demo.domain.refreshtoken;
+
+import com.example.demo.core.generic.AbstractServiceImpl;
+import com.example.demo.core.security.helpers.JwtProperties;
+import com.example.demo.domain.user.User;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Log4j2
+@Service
+@Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+public class RefreshTokenServiceImpl extends AbstractServiceImpl<RefreshToken> implements RefreshTokenService {
+
+  private static final int TOKEN_BYTES = 32;
+
+  private final RefreshTokenRepository refreshTokenRepository;
+  private final JwtProperties jwtProperties;
+  private final SecureRandom secureRandom = new SecureRandom();
+
+  @Autowired
+  public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository, JwtProperties jwtProperties) {
+    super(refreshTokenRepository);
+    this.refreshTokenRepository = refreshTokenRepository;
+    this.jwtProperties = jwtProperties;
+  }
+
+  @Override
+  public String issue(User user) {
+    return create(user, UUID.randomUUID());
+  }
+
+  @Override
+  public Rotation rotate(String rawToken) throws InvalidRefreshTokenException {
+    RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                                               .orElseThrow(
+                                                   () -> new InvalidRefreshTokenException("Unknown refresh token"));
+    if (token.isRevoked()) {
+      throw new InvalidRefreshTokenException("Refresh token has been revoked");
+    }
+    // Vor markUsed prüfen: ein abgelaufener Token darf nicht verbraucht werden, sonst gilt ein erneuter Versuch als
+    // Wiederverwendung und widerruft die Familie
+    if (token.getExpiresAt()
+             .isBefore(Instant.now())) {
+      throw new InvalidRefreshTokenException("Refresh token has expired");
+    }
+    if (token.isUsed() || refreshTokenRepository.markUsed(token.getId()) == 0) {
+      // Ein bereits verwendeter Token wurde erneut vorgelegt: die ganze Familie gilt als kompromittiert
+      refreshTokenRepository.revokeFamily(token.getFamilyId());
+      log.warn("Refresh token reuse detected for user {}, family {} revoked", token.getUser()
+                                                                                 .getId(), token.getFamilyId());
+      throw new InvalidRefreshTokenException("Refresh token has already been used");
+    }
+    return new Rotation(token.getUser(), create(token.getUser(), token.getFamilyId()));
+  }
+
+  @Override
+  public void deleteAllOfUser(UUID userId) {
+    refreshTokenRepository.deleteByUserId(userId);
+  }
+
+  @Override
+  public int deleteExpired() {
+    return refreshTokenRepository.deleteExpired(Instant.now());
+  }
+
+  private String create(User user, UUID familyId) {
+    byte[] bytes = new byte[TOKEN_BYTES];
+    secureRandom.nextBytes(bytes);
+    String rawToken = Base64.getUrlEncoder()
+                            .withoutPadding()
+                            .encodeToString(bytes);
+    Instant expiresAt = Instant.now()
+                               .plusMillis(jwtProperties.getRefreshExpirationMillis());
+    refreshTokenRepository.save(new RefreshToken(null, user, hash(rawToken), familyId, expiresAt));
+    return rawToken;
+  }
+
+  // Refresh Tokens sind zufällig und lang genug, ein schneller Hash statt BCrypt reicht deshalb aus
+  private static String hash(String rawToken) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+                                   .digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+      return HexFormat.of()
+                      .formatHex(digest);
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
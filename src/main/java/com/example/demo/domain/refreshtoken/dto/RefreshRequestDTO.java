@@ -0,0 +1,16 @@
+package com.example.demo.domain.refreshtoken.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@Getter
+@Setter
+public class RefreshRequestDTO {
+
+  @NotBlank
+  private String refreshToken;
+
+}
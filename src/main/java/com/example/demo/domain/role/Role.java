@@ -5,6 +5,7 @@ import com.example.demo.domain.authority.Authority;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -16,19 +17,31 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 
 @Entity
 @Table(name = "role")
+// Referenzdaten, siehe SecondLevelCacheConfig
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @NoArgsConstructor
 @Getter
 @Setter
 @Accessors(chain = true)
 public class Role extends AbstractEntity {
 
+  // Rolle, die neu registrierte oder importierte User erhalten
+  public static final UUID DEFAULT_ROLE_ID = UUID.fromString("c6aee32d-8c35-4481-8b3e-a876a39b0c02");
+
   @Column(name = "name", nullable = false, unique = true)
   private String name;
 
   @ManyToMany(fetch = FetchType.EAGER)
+  @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+  @Fetch(FetchMode.SELECT)
   @JoinTable(name = "role_authority", joinColumns = @JoinColumn(name = "role_id", referencedColumnName = "id"),
              inverseJoinColumns = @JoinColumn(name = "authority_id", referencedColumnName = "id"))
   private Set<Authority> authorities = new HashSet<>();
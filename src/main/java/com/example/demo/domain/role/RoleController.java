@@ -0,0 +1,30 @@
+package com.example.demo.domain.role;
+
+import com.example.demo.core.cache.ReferenceDataCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping({"/roles"})
+public class RoleController {
+
+  private final ReferenceDataCache referenceDataCache;
+
+  @Autowired
+  public RoleController(ReferenceDataCache referenceDataCache) {
+    this.referenceDataCache = referenceDataCache;
+  }
+
+  // Nach Änderungen an Rollen oder Authorities direkt in der Datenbank (z.B. per SQL-Skript)
+  @DeleteMapping("/cache")
+  @PreAuthorize("@userPermissionEvaluator.canEvictReferenceDataCache(authentication.principal)")
+  public ResponseEntity<Void> evictCache() {
+    referenceDataCache.evictAll();
+    return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+  }
+}
@@ -1,18 +1,63 @@
 package com.example.demo.domain.role;
 
+import com.example.demo.core.cache.ReferenceDataCache;
 import com.example.demo.core.generic.AbstractServiceImpl;
+import com.example.demo.core.security.principal.PrincipalCache;
+import com.example.demo.core.security.principal.SecurityEpochRegistry;
+import com.example.demo.domain.userprofile.UserProfileRepository;
+import com.example.demo.domain.userprofile.cache.ProfileCache;
 import lombok.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
 @Getter@Setter
 @Service
 public class RoleServiceImpl extends AbstractServiceImpl<Role> implements RoleService {
     private final RoleRepository roleRepository;
+    private final SecurityEpochRegistry securityEpochRegistry;
+    private final PrincipalCache principalCache;
+    private final ProfileCache profileCache;
+    private final ReferenceDataCache referenceDataCache;
+    private final UserProfileRepository userProfileRepository;
 
     @Autowired
-    public RoleServiceImpl(RoleRepository roleRepository) {
+    public RoleServiceImpl(RoleRepository roleRepository, SecurityEpochRegistry securityEpochRegistry,
+                           PrincipalCache principalCache, ProfileCache profileCache,
+                           ReferenceDataCache referenceDataCache, UserProfileRepository userProfileRepository) {
         super(roleRepository);
         this.roleRepository = roleRepository;
+        this.securityEpochRegistry = securityEpochRegistry;
+        this.principalCache = principalCache;
+        this.profileCache = profileCache;
+        this.referenceDataCache = referenceDataCache;
+        this.userProfileRepository = userProfileRepository;
+    }
+
+    // Eine Rolle kann vielen Usern gehören, deshalb werden alle Tokens, gecachten Principals und Profile ungültig.
+    // Die Rollen sind Teil der Profil-Antwort, die ETags der betroffenen Profile müssen sich deshalb ändern.
+    @Override
+    public Role updateById(UUID id, Role entity) throws NoSuchElementException {
+        Role updated = super.updateById(id, entity);
+        userProfileRepository.incrementVersionOfRole(id);
+        securityEpochRegistry.bumpAll();
+        principalCache.invalidateAll();
+        profileCache.invalidateAll();
+        return updated;
+    }
+
+    @Override
+    public void deleteById(UUID id) throws NoSuchElementException {
+        // Vor dem Löschen, danach sind die Zuordnungen zu den Usern nicht mehr vorhanden
+        userProfileRepository.incrementVersionOfRole(id);
+        super.deleteById(id);
+        securityEpochRegistry.bumpAll();
+        principalCache.invalidateAll();
+        profileCache.invalidateAll();
+        // Hibernate hält die Regionen bei Änderungen über die Entity aktuell, die gecachten Rollen-Zuordnungen
+        // der User (User.roles) würden aber noch auf die gelöschte Rolle verweisen
+        referenceDataCache.evictAll();
     }
 }
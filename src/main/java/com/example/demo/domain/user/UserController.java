@@ -1,13 +1,27 @@
 package com.example.demo.domain.user;
 
+import com.example.demo.core.security.helpers.AuthorizationSchemas;
+import com.example.demo.core.security.principal.AccessTokenIssuer;
+import com.example.demo.domain.refreshtoken.RefreshTokenService;
+import com.example.demo.domain.refreshtoken.dto.RefreshRequestDTO;
 import com.example.demo.domain.user.dto.UserDTO;
 import com.example.demo.domain.user.dto.UserMapper;
 import com.example.demo.domain.user.dto.UserRegisterDTO;
+import com.example.demo.domain.user.dto.UserSliceDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -18,7 +32,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Validated
 @RestController
@@ -27,11 +43,18 @@ public class UserController {
 
   private final UserService userService;
   private final UserMapper userMapper;
+  private final RefreshTokenService refreshTokenService;
+  private final AccessTokenIssuer accessTokenIssuer;
+  private final ObjectMapper objectMapper;
 
   @Autowired
-  public UserController(UserService userService, UserMapper userMapper) {
+  public UserController(UserService userService, UserMapper userMapper, RefreshTokenService refreshTokenService,
+                        AccessTokenIssuer accessTokenIssuer, ObjectMapper objectMapper) {
     this.userService = userService;
     this.userMapper = userMapper;
+    this.refreshTokenService = refreshTokenService;
+    this.accessTokenIssuer = accessTokenIssuer;
+    this.objectMapper = objectMapper;
   }
 
   @GetMapping("/{id}")
@@ -40,10 +63,39 @@ public class UserController {
     return new ResponseEntity<>(userMapper.toDTO(user), HttpStatus.OK);
   }
 
+  // Keyset-Pagination nach ID: ohne Cursor die erste Seite, danach nextCursor der vorherigen Antwort
   @GetMapping({"", "/"})
-  public ResponseEntity<List<UserDTO>> retrieveAll() {
-    List<User> users = userService.findAll();
-    return new ResponseEntity<>(userMapper.toDTOs(users), HttpStatus.OK);
+  public ResponseEntity<UserSliceDTO> retrieveAll(@RequestParam(required = false) UUID cursor,
+                                                  @RequestParam(defaultValue = "20") int size) {
+    Slice<User> users = userService.findSliceAfter(cursor, size);
+    List<UserDTO> content = userMapper.toDTOs(users.getContent());
+    UUID nextCursor = users.hasNext() ? content.get(content.size() - 1).getId() : null;
+    return new ResponseEntity<>(new UserSliceDTO(content, content.size(), users.hasNext(), nextCursor),
+        HttpStatus.OK);
+  }
+
+  // Alle User als NDJSON (ein UserDTO pro Zeile), chunkweise aus der Datenbank gelesen und direkt geschrieben
+  @GetMapping("/stream")
+  public ResponseEntity<StreamingResponseBody> streamAll() {
+    ObjectWriter writer = objectMapper.writerFor(UserDTO.class)
+                                      .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    StreamingResponseBody body = out -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        userService.streamAll(user -> {
+          try {
+            writer.writeValue(generator, userMapper.toDTO(user));
+            generator.writeRaw('\n');
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    };
+    return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
   }
 
   @PostMapping("/register")
@@ -51,20 +103,33 @@ public class UserController {
     User user = userService.register(userMapper.fromUserRegisterDTO(userRegisterDTO));
     return new ResponseEntity<>(userMapper.toDTO(user), HttpStatus.CREATED);
   }
+  // Tauscht einen Refresh Token gegen ein neues Access Token und den nächsten Refresh Token derselben Familie
+  @PostMapping("/refresh")
+  public ResponseEntity<Void> refresh(@Valid @RequestBody RefreshRequestDTO refreshRequestDTO) {
+    // Vor rotate, das den User mit seinen Rollen lädt
+    long snapshot = accessTokenIssuer.snapshot();
+    RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequestDTO.getRefreshToken());
+    HttpHeaders headers = new HttpHeaders();
+    headers.add(HttpHeaders.AUTHORIZATION,
+        AuthorizationSchemas.BEARER + " " + accessTokenIssuer.issue(rotation.user(), snapshot));
+    headers.add(RefreshTokenService.HEADER, rotation.refreshToken());
+    return new ResponseEntity<>(headers, HttpStatus.OK);
+  }
+
   @PostMapping("/registerUser")
   public ResponseEntity<UserDTO> registerWithoutPassword(@Valid @RequestBody UserDTO userDTO) {
     User user = userService.registerUser(userMapper.fromDTO(userDTO));
     return new ResponseEntity<>(userMapper.toDTO(user), HttpStatus.CREATED);
   }
   @PutMapping("/{id}")
-  @PreAuthorize("hasAuthority('USER_MODIFY') && @userPermissionEvaluator.exampleEvaluator(authentication.principal.user,#id)")
+  @PreAuthorize("authentication.principal.permissions.hasAuthority('USER_MODIFY') && @userPermissionEvaluator.exampleEvaluator(authentication.principal.user,#id)")
   public ResponseEntity<UserDTO> updateById(@PathVariable UUID id, @Valid @RequestBody UserDTO userDTO) {
     User user = userService.updateById(id, userMapper.fromDTO(userDTO));
     return new ResponseEntity<>(userMapper.toDTO(user), HttpStatus.OK);
   }
 
   @DeleteMapping("/{id}")
-  @PreAuthorize("hasAuthority('USER_DELETE')")
+  @PreAuthorize("authentication.principal.permissions.hasAuthority('USER_DELETE')")
   public ResponseEntity<Void> deleteById(@PathVariable UUID id) {
     userService.deleteById(id);
     return new ResponseEntity<>(HttpStatus.NO_CONTENT);
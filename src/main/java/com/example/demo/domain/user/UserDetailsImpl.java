@@ -1,20 +1,19 @@
 package com.example.demo.domain.user;
 
+import com.example.demo.core.security.principal.PermissionSet;
 import java.util.Collection;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-public record UserDetailsImpl(User user) implements UserDetails {
+public record UserDetailsImpl(User user, PermissionSet permissions) implements UserDetails {
+
+  public UserDetailsImpl(User user) {
+    this(user, PermissionSet.of(user));
+  }
 
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
-    return user.getRoles()
-               .stream()
-               .flatMap(r -> r.getAuthorities()
-                              .stream())
-               .map(a -> new SimpleGrantedAuthority(a.getName()))
-               .toList();
+    return permissions.getAuthorities();
   }
 
   @Override
@@ -2,6 +2,8 @@ package com.example.demo.domain.user;
 
 import com.example.demo.core.generic.AbstractRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 
@@ -11,4 +13,6 @@ import org.springframework.stereotype.Repository;
 public interface UserRepository extends AbstractRepository<User> {
   Optional<User> findByEmail(String email);
 
+  List<User> findAllByEmailIn(Collection<String> emails);
+
 }
@@ -1,14 +1,21 @@
 package com.example.demo.domain.user;
 
 import com.example.demo.core.generic.AbstractServiceImpl;
+import com.example.demo.core.security.principal.PrincipalCache;
+import com.example.demo.core.security.principal.SecurityEpochRegistry;
+import com.example.demo.domain.refreshtoken.RefreshTokenService;
 import com.example.demo.domain.role.Role;
 import com.example.demo.domain.role.RoleService;
+import com.example.demo.domain.userprofile.UserProfileRepository;
+import com.example.demo.domain.userprofile.cache.ProfileCache;
+import com.example.demo.domain.userprofile.search.ProfileSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.UUID;
 
@@ -17,12 +24,27 @@ public class UserServiceImpl extends AbstractServiceImpl<User> implements UserSe
 
   private final PasswordEncoder passwordEncoder;
   private final RoleService roleService;
+  private final SecurityEpochRegistry securityEpochRegistry;
+  private final PrincipalCache principalCache;
+  private final RefreshTokenService refreshTokenService;
+  private final UserProfileRepository userProfileRepository;
+  private final ProfileSearchIndex profileSearchIndex;
+  private final ProfileCache profileCache;
 
   @Autowired
-  public UserServiceImpl(UserRepository repository, PasswordEncoder passwordEncoder, RoleService roleService) {
+  public UserServiceImpl(UserRepository repository, PasswordEncoder passwordEncoder, RoleService roleService,
+                         SecurityEpochRegistry securityEpochRegistry, PrincipalCache principalCache,
+                         RefreshTokenService refreshTokenService, UserProfileRepository userProfileRepository,
+                         ProfileSearchIndex profileSearchIndex, ProfileCache profileCache) {
     super(repository);
     this.passwordEncoder = passwordEncoder;
       this.roleService = roleService;
+    this.securityEpochRegistry = securityEpochRegistry;
+    this.principalCache = principalCache;
+    this.refreshTokenService = refreshTokenService;
+    this.userProfileRepository = userProfileRepository;
+    this.profileSearchIndex = profileSearchIndex;
+    this.profileCache = profileCache;
   }
 
   @Override
@@ -32,10 +54,33 @@ public class UserServiceImpl extends AbstractServiceImpl<User> implements UserSe
                                         .orElseThrow(() -> new UsernameNotFoundException(email));
   }
 
+  @Override
+  public User updateById(UUID id, User entity) throws NoSuchElementException {
+    User updated = super.updateById(id, entity);
+    // Name und Email sind Teil des Suchtexts im Profil
+    userProfileRepository.refreshSearchText(id);
+    // Der User ist Teil der Profil-Antwort, deren ETag sich deshalb ändern muss
+    userProfileRepository.incrementVersionOfUser(id);
+    profileSearchIndex.refreshUser(id);
+    profileCache.invalidateUser(id);
+    securityEpochRegistry.bump(id);
+    principalCache.invalidate(id);
+    return updated;
+  }
+
+  @Override
+  public void deleteById(UUID id) throws NoSuchElementException {
+    refreshTokenService.deleteAllOfUser(id);
+    super.deleteById(id);
+    securityEpochRegistry.bump(id);
+    principalCache.invalidate(id);
+    profileCache.invalidateUser(id);
+  }
+
   @Override
   public User register(User user) {
     user.setPassword(passwordEncoder.encode(user.getPassword()));
-    Role defaultRole=roleService.findById(UUID.fromString("c6aee32d-8c35-4481-8b3e-a876a39b0c02"));//Default role
+    Role defaultRole=roleService.findById(Role.DEFAULT_ROLE_ID);//Default role
     user.setRoles(Set.of(defaultRole));
     return save(user);
   }
@@ -0,0 +1,26 @@
+package com.example.demo.domain.user.dto;
+
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Keyset page of users in id order, without total count. nextCursor is null on the last page.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class UserSliceDTO {
+
+  private List<UserDTO> content;
+
+  private int size;
+
+  private boolean hasNext;
+
+  private UUID nextCursor;
+}
@@ -0,0 +1,11 @@
+package com.example.demo.domain.userprofile;
+
+/**
+ * Der User hat bereits ein Profil (Unique-Constraint auf user_profile.id_user)
+ */
+public class ProfileAlreadyExistsException extends RuntimeException {
+
+    public ProfileAlreadyExistsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.demo.domain.userprofile;
+
+import java.time.LocalDate;
+
+/**
+ * Die Felder eines Massen-Updates; null bedeutet unverändert
+ */
+public record ProfileChanges(String address, LocalDate birthdate, String profileImgUrl, Integer age) {
+}
@@ -0,0 +1,84 @@
+package com.example.demo.domain.userprofile;
+
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * ProfileCursor - Fortsetzungstoken für die Keyset-Pagination der Profilliste
+ *
+ * Enthält die Sortierung sowie Sortierschlüssel und ID des letzten gelieferten Profils. Die nächste
+ * Seite beginnt direkt danach (Seek-Prädikat statt OFFSET), die Kosten hängen deshalb nicht davon ab,
+ * wie weit schon geblättert wurde. Für Clients ist das Token opak (Base64url).
+ *
+ * Sortierbar ist nach Feldern ohne NULL-Werte: id, address, birthdate und user.email.
+ */
+public record ProfileCursor(String property, boolean descending, Object key, UUID id) {
+
+    static final Map<String, Function<UserProfile, Object>> SORT_KEYS = Map.of(
+            "id", UserProfile::getId,
+            "address", UserProfile::getAddress,
+            "birthdate", UserProfile::getBirthdate,
+            "user.email", profile -> profile.getUser().getEmail());
+
+    private static final Map<String, Function<String, Object>> PARSERS = Map.of(
+            "id", UUID::fromString,
+            "address", value -> value,
+            "birthdate", LocalDate::parse,
+            "user.email", value -> value);
+
+    private static final String VERSION = "1";
+
+    /**
+     * Prüft die Sortierung einer ersten Seite; ohne Sortierung wird nach ID sortiert
+     */
+    public static Sort.Order order(Sort sort) {
+        if (sort.isUnsorted()) {
+            return Sort.Order.asc("id");
+        }
+        if (sort.stream().count() > 1) {
+            throw new IllegalArgumentException("Cursor pagination supports exactly one sort property");
+        }
+        Sort.Order order = sort.iterator().next();
+        if (!SORT_KEYS.containsKey(order.getProperty()) || order.isIgnoreCase()) {
+            throw new IllegalArgumentException("Cursor pagination cannot sort by " + order.getProperty()
+                    + ", supported: " + SORT_KEYS.keySet());
+        }
+        return order;
+    }
+
+    public static ProfileCursor after(UserProfile last, Sort.Order order) {
+        return new ProfileCursor(order.getProperty(), order.isDescending(),
+                SORT_KEYS.get(order.getProperty()).apply(last), last.getId());
+    }
+
+    public Sort.Order order() {
+        return descending ? Sort.Order.desc(property) : Sort.Order.asc(property);
+    }
+
+    public String encode() {
+        String raw = String.join("|", VERSION, property, descending ? "desc" : "asc", id.toString(), key.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProfileCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // Der Schlüssel steht am Ende und darf selbst '|' enthalten
+            String[] parts = raw.split("\\|", 5);
+            if (parts.length != 5 || !VERSION.equals(parts[0]) || !PARSERS.containsKey(parts[1])
+                    || !(parts[2].equals("asc") || parts[2].equals("desc"))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new ProfileCursor(parts[1], parts[2].equals("desc"), PARSERS.get(parts[1]).apply(parts[4]),
+                    UUID.fromString(parts[3]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.demo.domain.userprofile;
+
+import com.example.demo.domain.userprofile.dto.UserProfileDTO;
+
+import java.util.UUID;
+
+/**
+ * ProfileETag - Starker ETag eines Profils aus Profil-ID und Version
+ *
+ * Die ID ist enthalten, damit ein neu angelegtes Profil unter /profiles/me nicht den ETag des gelöschten
+ * Vorgängers mit gleicher Version erhält.
+ */
+public record ProfileETag(UUID profileId, long version) {
+
+    public static ProfileETag of(UserProfileDTO dto) {
+        return new ProfileETag(dto.getId(), dto.getVersion());
+    }
+
+    public static ProfileETag of(UserProfile profile) {
+        return new ProfileETag(profile.getId(), profile.getVersion());
+    }
+
+    /**
+     * Wert für den ETag-Header, inklusive Anführungszeichen
+     */
+    public String headerValue() {
+        return "\"" + profileId + "-" + version + "\"";
+    }
+
+    /**
+     * If-None-Match: schwacher Vergleich, "W/"-Präfixe werden ignoriert
+     */
+    public boolean matchesIfNoneMatch(String header) {
+        return matches(header, true);
+    }
+
+    /**
+     * If-Match: starker Vergleich, schwache ETags passen nie
+     */
+    public boolean matchesIfMatch(String header) {
+        return matches(header, false);
+    }
+
+    private boolean matches(String header, boolean weak) {
+        String current = headerValue();
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (weak && tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
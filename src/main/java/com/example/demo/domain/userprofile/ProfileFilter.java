@@ -0,0 +1,34 @@
+package com.example.demo.domain.userprofile;
+
+/**
+ * ProfileFilter - die tatsächlich gesetzten Filter einer Admin-Suche
+ *
+ * Leere Werte werden zu null normalisiert, Suchbegriff und Adresse liegen bereits als maskierte
+ * LIKE-Muster vor. {@link #shape()} beschreibt, welche Filter gesetzt sind; pro Kombination wird
+ * genau eine Abfrage erzeugt und wiederverwendet, siehe {@link ProfileQueryComposer}.
+ */
+public record ProfileFilter(String searchPattern, String addressPattern, Integer minAge, Integer maxAge) {
+
+    static final int SEARCH = 1;
+    static final int ADDRESS = 1 << 1;
+    static final int MIN_AGE = 1 << 2;
+    static final int MAX_AGE = 1 << 3;
+
+    public static ProfileFilter of(String searchTerm, String address, Integer minAge, Integer maxAge) {
+        return new ProfileFilter(
+                searchTerm == null || searchTerm.isBlank() ? null : UserProfileSearch.likePattern(searchTerm),
+                address == null || address.isBlank() ? null : UserProfileSearch.likePattern(address),
+                minAge, maxAge);
+    }
+
+    public static ProfileFilter none() {
+        return new ProfileFilter(null, null, null, null);
+    }
+
+    public int shape() {
+        return (searchPattern != null ? SEARCH : 0)
+                | (addressPattern != null ? ADDRESS : 0)
+                | (minAge != null ? MIN_AGE : 0)
+                | (maxAge != null ? MAX_AGE : 0);
+    }
+}
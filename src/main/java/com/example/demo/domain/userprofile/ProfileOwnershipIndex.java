@@ -0,0 +1,103 @@
+package com.example.demo.domain.userprofile;
+
+import com.example.demo.core.generic.LoadedEntityRegistry;
+import com.example.demo.domain.userprofile.cache.ProfileCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ProfileOwnershipIndex - profileId → userId Zuordnung für Berechtigungsprüfungen
+ *
+ * Der Besitzer eines Profils ändert sich nie. Einträge werden beim ersten Zugriff geladen und von
+ * UserProfileServiceImpl bei Create/Delete nachgeführt. Ein Cache-Hit kostet einen Hash-Lookup. Die Anzahl
+ * Einträge ist begrenzt (profile-ownership.maximum-size), selten geprüfte Profile werden verdrängt. Die
+ * umgekehrte Zuordnung userId → profileId dient dem Löschen über die User-ID.
+ *
+ * Bei einem Miss genügt normalerweise die reine ID-Abfrage. Nur wenn der Aufrufer das Profil danach ohnehin
+ * liest ({@link #findOwnerIdPreloading}) und es nicht im ProfileCache liegt, wird innerhalb eines Requests das
+ * ganze Profil geladen und im LoadedEntityRegistry abgelegt, damit der Service es ohne zweiten
+ * Datenbankzugriff weiterverwenden kann.
+ */
+@Component
+public class ProfileOwnershipIndex {
+
+    private final UserProfileRepository userProfileRepository;
+    private final LoadedEntityRegistry loadedEntityRegistry;
+    private final ProfileCache profileCache;
+    private final Cache<UUID, UUID> ownerByProfileId;
+    private final Map<UUID, UUID> profileIdByOwnerId = new ConcurrentHashMap<>();
+
+    public ProfileOwnershipIndex(UserProfileRepository userProfileRepository,
+                                 LoadedEntityRegistry loadedEntityRegistry, ProfileCache profileCache,
+                                 ProfileOwnershipProperties properties) {
+        this.userProfileRepository = userProfileRepository;
+        this.loadedEntityRegistry = loadedEntityRegistry;
+        this.profileCache = profileCache;
+        this.ownerByProfileId = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                // Synchron, damit die umgekehrte Zuordnung nie auf verdrängte Einträge zeigt
+                .executor(Runnable::run)
+                .removalListener((UUID profileId, UUID ownerId, RemovalCause cause) -> {
+                    if (ownerId != null && cause != RemovalCause.REPLACED) {
+                        profileIdByOwnerId.remove(ownerId, profileId);
+                    }
+                })
+                .build();
+    }
+
+    public Optional<UUID> findOwnerId(UUID profileId) {
+        return findOwnerId(profileId, false);
+    }
+
+    /**
+     * Wie {@link #findOwnerId}, für Aufrufer, die das Profil anschliessend lesen
+     */
+    public Optional<UUID> findOwnerIdPreloading(UUID profileId) {
+        return findOwnerId(profileId, true);
+    }
+
+    private Optional<UUID> findOwnerId(UUID profileId, boolean preload) {
+        UUID ownerId = ownerByProfileId.getIfPresent(profileId);
+        if (ownerId != null) {
+            return Optional.of(ownerId);
+        }
+        // Nicht gefundene Profile werden nicht gemerkt, damit zufällige IDs den Index nicht füllen
+        Optional<UUID> loaded = preload && loadedEntityRegistry.isActive() && !profileCache.contains(profileId)
+                ? loadOwnerId(profileId)
+                : userProfileRepository.findOwnerIdById(profileId);
+        loaded.ifPresent(id -> register(profileId, id));
+        return loaded;
+    }
+
+    private Optional<UUID> loadOwnerId(UUID profileId) {
+        return userProfileRepository.findById(profileId)
+                .map(profile -> {
+                    loadedEntityRegistry.register(profile);
+                    return profile.getUser().getId();
+                });
+    }
+
+    public void register(UUID profileId, UUID ownerId) {
+        profileIdByOwnerId.put(ownerId, profileId);
+        ownerByProfileId.put(profileId, ownerId);
+    }
+
+    public void remove(UUID profileId) {
+        ownerByProfileId.invalidate(profileId);
+    }
+
+    // Für Löschungen über die User-ID; ein User hat höchstens ein Profil
+    public void removeOwner(UUID ownerId) {
+        UUID profileId = profileIdByOwnerId.remove(ownerId);
+        if (profileId != null) {
+            ownerByProfileId.invalidate(profileId);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.domain.userprofile;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("profile-ownership")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ProfileOwnershipProperties {
+
+    private long maximumSize = 100_000;
+
+}
@@ -0,0 +1,91 @@
+package com.example.demo.domain.userprofile;
+
+import com.example.demo.domain.userprofile.dto.UserProfileDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * ProfilePatch - Partial Update eines Profils nach JSON Merge Patch (RFC 7396)
+ *
+ * Nur die Felder in {@code fields} werden geändert, auch auf null (z.B. Profilbild-URL entfernen). Alle anderen
+ * bleiben unverändert. Validiert werden die geänderten Felder auf dem zusammengeführten Profil, siehe
+ * {@link #applyTo}.
+ */
+public record ProfilePatch(Set<Field> fields, String address, LocalDate birthdate, String profileImgUrl,
+                           Integer age) {
+
+    public enum Field {
+        ADDRESS("address"),
+        BIRTHDATE("birthdate"),
+        PROFILE_IMG_URL("profileImgUrl"),
+        AGE("age");
+
+        private final String property;
+
+        Field(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+    }
+
+    public ProfilePatch {
+        fields = fields.isEmpty() ? EnumSet.noneOf(Field.class) : EnumSet.copyOf(fields);
+    }
+
+    /**
+     * Liest einen Merge Patch mit denselben Feldnamen und Formaten wie beim PUT; unbekannte Felder werden ignoriert
+     */
+    public static ProfilePatch fromMergePatch(ObjectNode patch, ObjectMapper objectMapper) throws IOException {
+        UserProfileDTO.CreateUpdateDTO values = objectMapper.readerForUpdating(new UserProfileDTO.CreateUpdateDTO())
+                .readValue(patch);
+        Set<Field> fields = EnumSet.noneOf(Field.class);
+        for (Field field : Field.values()) {
+            // has() ist auch für explizites null wahr
+            if (patch.has(field.getProperty())) {
+                fields.add(field);
+            }
+        }
+        return new ProfilePatch(fields, values.getAddress(), values.getBirthdate(), values.getProfileImgUrl(),
+                values.getAge());
+    }
+
+    /**
+     * PUT: Felder mit null bleiben unverändert
+     */
+    public static ProfilePatch ofNonNull(UserProfileDTO.CreateUpdateDTO dto) {
+        Set<Field> fields = EnumSet.noneOf(Field.class);
+        if (dto.getAddress() != null) fields.add(Field.ADDRESS);
+        if (dto.getBirthdate() != null) fields.add(Field.BIRTHDATE);
+        if (dto.getProfileImgUrl() != null) fields.add(Field.PROFILE_IMG_URL);
+        if (dto.getAge() != null) fields.add(Field.AGE);
+        return new ProfilePatch(fields, dto.getAddress(), dto.getBirthdate(), dto.getProfileImgUrl(), dto.getAge());
+    }
+
+    public boolean isEmpty() {
+        return fields.isEmpty();
+    }
+
+    public boolean changes(Field field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * Das Profil nach dem Patch, zur Validierung mit den Regeln des PUT
+     */
+    public UserProfileDTO.CreateUpdateDTO applyTo(UserProfileDTO current) {
+        UserProfileDTO.CreateUpdateDTO merged = new UserProfileDTO.CreateUpdateDTO();
+        merged.setAddress(changes(Field.ADDRESS) ? address : current.getAddress());
+        merged.setBirthdate(changes(Field.BIRTHDATE) ? birthdate : current.getBirthdate());
+        merged.setProfileImgUrl(changes(Field.PROFILE_IMG_URL) ? profileImgUrl : current.getProfileImgUrl());
+        merged.setAge(changes(Field.AGE) ? age : current.getAge());
+        return merged;
+    }
+}
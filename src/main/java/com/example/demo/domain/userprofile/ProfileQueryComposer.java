@@ -0,0 +1,75 @@
+package com.example.demo.domain.userprofile;
+
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ProfileQueryComposer - erzeugt die WHERE-Bedingungen der Admin-Suche
+ *
+ * Es werden nur die Prädikate der gesetzten Filter ausgegeben, statt "(:x IS NULL OR ...)" für alle.
+ * So bekommt jede Filterkombination einen eigenen Ausführungsplan, der z.B. den Index auf age oder den
+ * Trigramm-Index auf search_text nutzen kann. Die Bedingungen werden pro Kombination (Bitmaske, max.
+ * 16 Varianten) einmal erzeugt; weil der JPQL-String dadurch stabil bleibt, trifft Hibernate auch
+ * seinen eigenen Query-Plan-Cache.
+ */
+final class ProfileQueryComposer {
+
+    /**
+     * Lädt den User im selben Statement mit (to-one, verträgt sich mit LIMIT/OFFSET). Rollen und Authorities
+     * sind Collections und werden per Batch-Fetch (hibernate.default_batch_fetch_size) für die ganze Seite
+     * in je einem Statement nachgeladen.
+     */
+    static final String SELECT = "SELECT up FROM UserProfile up JOIN FETCH up.user";
+
+    private static final Map<Integer, Shape> SHAPES = new ConcurrentHashMap<>();
+
+    /**
+     * Die Prädikate einer Filterkombination (mit AND zu verknüpfen) und die fertigen Abfragen ohne ORDER BY
+     */
+    record Shape(List<String> predicates, String select, String count) {
+    }
+
+    private ProfileQueryComposer() {
+    }
+
+    static Shape shape(ProfileFilter filter) {
+        return SHAPES.computeIfAbsent(filter.shape(), ProfileQueryComposer::compose);
+    }
+
+    static void bind(Query query, ProfileFilter filter) {
+        if (filter.searchPattern() != null) {
+            query.setParameter("pattern", filter.searchPattern());
+        }
+        if (filter.addressPattern() != null) {
+            query.setParameter("address", filter.addressPattern());
+        }
+        if (filter.minAge() != null) {
+            query.setParameter("minAge", filter.minAge());
+        }
+        if (filter.maxAge() != null) {
+            query.setParameter("maxAge", filter.maxAge());
+        }
+    }
+
+    private static Shape compose(int shape) {
+        List<String> predicates = new ArrayList<>();
+        if ((shape & ProfileFilter.SEARCH) != 0) {
+            predicates.add("up.searchText LIKE :pattern ESCAPE '\\'");
+        }
+        if ((shape & ProfileFilter.ADDRESS) != 0) {
+            predicates.add("LOWER(up.address) LIKE :address ESCAPE '\\'");
+        }
+        if ((shape & ProfileFilter.MIN_AGE) != 0) {
+            predicates.add("up.age >= :minAge");
+        }
+        if ((shape & ProfileFilter.MAX_AGE) != 0) {
+            predicates.add("up.age <= :maxAge");
+        }
+        String where = predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+        return new Shape(List.copyOf(predicates), SELECT + where, "SELECT COUNT(up) FROM UserProfile up" + where);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.demo.domain.userprofile;
+
+/**
+ * Das Profil wurde seit dem Lesen geändert, der If-Match-Header passt nicht mehr zur aktuellen Version
+ */
+public class ProfileVersionMismatchException extends RuntimeException {
+
+    public ProfileVersionMismatchException(String message) {
+        super(message);
+    }
+}
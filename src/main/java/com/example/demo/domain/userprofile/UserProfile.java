@@ -3,6 +3,7 @@ package com.example.demo.domain.userprofile;
 import com.example.demo.core.generic.AbstractEntity;
 import com.example.demo.domain.user.User;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -23,7 +24,13 @@ import java.util.UUID;
  * - Validierung über Bean Validation in DTO-Schicht
  */
 @Entity
-@Table(name = "user_profile")
+@Table(name = "user_profile", indexes = {
+        // Für die Keyset-Pagination (Sortierschlüssel + ID als zweiter Schlüssel)
+        @Index(name = "user_profile_address_id", columnList = "address, id"),
+        @Index(name = "user_profile_birthdate_id", columnList = "birthdate, id"),
+        // Für die Altersfilter der Admin-Suche
+        @Index(name = "user_profile_age", columnList = "age")
+})
 @NoArgsConstructor
 @Getter
 @Setter
@@ -47,6 +54,16 @@ public class UserProfile extends AbstractEntity {
     @Column(name = "age")
     private Integer age;
 
+    // Optimistic Locking und ETag (siehe ProfileETag), wird bei jeder Änderung am Profil oder am User erhöht
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Denormalisierter Suchtext für die Admin-Suche, siehe UserProfileSearch
+    @Column(name = "search_text", length = 1024)
+    @Setter(AccessLevel.NONE)
+    private String searchText;
+
     public UserProfile(UUID id, User user, String address, LocalDate birthdate, String profileImgUrl, Integer age) {
         super(id);
         this.user = user;
@@ -56,6 +73,12 @@ public class UserProfile extends AbstractEntity {
         this.age = age;
     }
 
+    @PrePersist
+    @PreUpdate
+    void updateSearchText() {
+        this.searchText = user == null ? null : UserProfileSearch.searchText(user, address);
+    }
+
     /**
      * Prüft ob das Profil dem angegebenen User gehört
      * Wird für Autorisierungsprüfungen verwendet
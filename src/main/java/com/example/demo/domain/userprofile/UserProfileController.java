@@ -2,20 +2,39 @@ package com.example.demo.domain.userprofile;
 
 import com.example.demo.domain.user.User;
 import com.example.demo.domain.user.UserDetailsImpl;
+import com.example.demo.domain.userprofile.dto.UserProfileBulkDTO;
+import com.example.demo.domain.userprofile.dto.UserProfileBulkResultDTO;
 import com.example.demo.domain.userprofile.dto.UserProfileDTO;
+import com.example.demo.domain.userprofile.dto.UserProfileSliceDTO;
+import com.example.demo.domain.userprofile.export.ProfileExportFormat;
+import com.example.demo.domain.userprofile.importer.ProfileImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST Controller für UserProfile Management
@@ -33,15 +52,21 @@ import java.util.UUID;
 @SecurityRequirement(name = "bearerAuth")
 public class UserProfileController {
 
+    // Clients müssen vor jeder Verwendung mit If-None-Match nachfragen, das Profil ist nicht öffentlich
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
     private final UserProfileService userProfileService;
+    private final ObjectMapper objectMapper;
 
-    public UserProfileController(UserProfileService userProfileService) {
+    public UserProfileController(UserProfileService userProfileService, ObjectMapper objectMapper) {
         this.userProfileService = userProfileService;
+        this.objectMapper = objectMapper;
     }
 
     // ---- UC1: User erstellt eigenes Profil ----
     @PostMapping
-    @PreAuthorize("@userPermissionEvaluator.canCreateProfile(authentication.principal.user)")
+    @PreAuthorize("@userPermissionEvaluator.canCreateProfile(authentication.principal)")
     @Operation(summary = "Create own profile",
             description = "User erstellt eigenes Profil mit Adresse, Geburtsdatum, Profilbild-URL und Alter")
     public ResponseEntity<UserProfileDTO> createProfile(
@@ -54,27 +79,53 @@ public class UserProfileController {
 
     // ---- UC2: User liest eigenes Profil ----
     @GetMapping("/me")
-    @PreAuthorize("@userPermissionEvaluator.canAccessOwnProfile(authentication.principal.user)")
-    @Operation(summary = "Get own profile", description = "User liest eigenes Profil")
-    public ResponseEntity<UserProfileDTO> getOwnProfile(Authentication auth) {
+    @PreAuthorize("@userPermissionEvaluator.canAccessOwnProfile(authentication.principal)")
+    @Operation(summary = "Get own profile", description = "User liest eigenes Profil; mit If-None-Match 304, "
+            + "falls unverändert")
+    public ResponseEntity<UserProfileDTO> getOwnProfile(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication auth) {
         User currentUser = ((UserDetailsImpl) auth.getPrincipal()).user();
-        return ResponseEntity.ok(userProfileService.getOwnProfile(currentUser));
+        if (ifNoneMatch != null) {
+            Optional<ProfileETag> current = userProfileService.findOwnProfileETag(currentUser);
+            if (current.isPresent() && current.get().matchesIfNoneMatch(ifNoneMatch)) {
+                return notModified(current.get());
+            }
+        }
+        return withETag(userProfileService.getOwnProfile(currentUser));
     }
 
     // ---- UC2: User aktualisiert eigenes Profil ----
     @PutMapping("/me")
-    @PreAuthorize("@userPermissionEvaluator.canModifyOwnProfile(authentication.principal.user)")
-    @Operation(summary = "Update own profile", description = "User aktualisiert eigenes Profil")
+    @PreAuthorize("@userPermissionEvaluator.canModifyOwnProfile(authentication.principal)")
+    @Operation(summary = "Update own profile", description = "User aktualisiert eigenes Profil; mit If-Match "
+            + "nur, falls seit dem Lesen unverändert (sonst 412)")
     public ResponseEntity<UserProfileDTO> updateOwnProfile(
             @Valid @RequestBody UserProfileDTO.CreateUpdateDTO updateDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication auth) {
         User currentUser = ((UserDetailsImpl) auth.getPrincipal()).user();
-        return ResponseEntity.ok(userProfileService.updateOwnProfile(updateDTO, currentUser));
+        return withETag(userProfileService.updateOwnProfile(updateDTO, ifMatch, currentUser));
+    }
+
+    // ---- UC2: User ändert einzelne Felder des eigenen Profils ----
+    @PatchMapping(value = "/me", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("@userPermissionEvaluator.canModifyOwnProfile(authentication.principal)")
+    @Operation(summary = "Patch own profile", description = "User ändert einzelne Felder des eigenen Profils "
+            + "(JSON Merge Patch: fehlende Felder bleiben unverändert, null entfernt die Profilbild-URL); mit "
+            + "If-Match nur, falls seit dem Lesen unverändert (sonst 412)")
+    public ResponseEntity<UserProfileDTO> patchOwnProfile(
+            @RequestBody ObjectNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication auth) throws IOException {
+        User currentUser = ((UserDetailsImpl) auth.getPrincipal()).user();
+        return withETag(userProfileService.patchOwnProfile(ProfilePatch.fromMergePatch(patch, objectMapper),
+                ifMatch, currentUser));
     }
 
     // ---- UC2: User löscht eigenes Profil ----
     @DeleteMapping("/me")
-    @PreAuthorize("@userPermissionEvaluator.canDeleteOwnProfile(authentication.principal.user)")
+    @PreAuthorize("@userPermissionEvaluator.canDeleteOwnProfile(authentication.principal)")
     @Operation(summary = "Delete own profile", description = "User löscht eigenes Profil")
     public ResponseEntity<Void> deleteOwnProfile(Authentication auth) {
         User currentUser = ((UserDetailsImpl) auth.getPrincipal()).user();
@@ -84,32 +135,58 @@ public class UserProfileController {
 
     // ---- UC3 + UC5: Admin oder Owner liest Profil ----
     @GetMapping("/{profileId}")
-    @PreAuthorize("@userPermissionEvaluator.canAccessProfile(authentication.principal.user, #profileId)")
+    @PreAuthorize("@userPermissionEvaluator.canAccessProfile(authentication.principal, #profileId, #ifNoneMatch)")
     @Operation(summary = "Get profile by ID",
-            description = "Admin oder Besitzer liest Profil anhand der Profil-ID")
+            description = "Admin oder Besitzer liest Profil anhand der Profil-ID; mit If-None-Match 304, "
+                    + "falls unverändert")
     public ResponseEntity<UserProfileDTO> getProfileById(
             @PathVariable UUID profileId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             Authentication auth) {
         User currentUser = ((UserDetailsImpl) auth.getPrincipal()).user();
-        return ResponseEntity.ok(userProfileService.getProfileById(profileId, currentUser));
+        if (ifNoneMatch != null) {
+            Optional<ProfileETag> current = userProfileService.findProfileETag(profileId);
+            if (current.isPresent() && current.get().matchesIfNoneMatch(ifNoneMatch)) {
+                return notModified(current.get());
+            }
+        }
+        return withETag(userProfileService.getProfileById(profileId, currentUser));
     }
 
     // ---- UC3 + UC5: Admin oder Owner aktualisiert Profil ----
     @PutMapping("/{profileId}")
-    @PreAuthorize("@userPermissionEvaluator.canModifyProfile(authentication.principal.user, #profileId)")
+    @PreAuthorize("@userPermissionEvaluator.canModifyProfile(authentication.principal, #profileId)")
     @Operation(summary = "Update profile by ID",
-            description = "Admin oder Besitzer aktualisiert Profil")
+            description = "Admin oder Besitzer aktualisiert Profil; mit If-Match nur, falls seit dem Lesen "
+                    + "unverändert (sonst 412)")
     public ResponseEntity<UserProfileDTO> updateProfile(
             @PathVariable UUID profileId,
             @Valid @RequestBody UserProfileDTO.CreateUpdateDTO updateDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication auth) {
         User currentUser = ((UserDetailsImpl) auth.getPrincipal()).user();
-        return ResponseEntity.ok(userProfileService.updateProfile(profileId, updateDTO, currentUser));
+        return withETag(userProfileService.updateProfile(profileId, updateDTO, ifMatch, currentUser));
+    }
+
+    // ---- UC3 + UC5: Admin oder Owner ändert einzelne Felder eines Profils ----
+    @PatchMapping(value = "/{profileId}", consumes = {MERGE_PATCH_JSON, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("@userPermissionEvaluator.canModifyProfile(authentication.principal, #profileId)")
+    @Operation(summary = "Patch profile by ID",
+            description = "Admin oder Besitzer ändert einzelne Felder eines Profils (JSON Merge Patch); mit "
+                    + "If-Match nur, falls seit dem Lesen unverändert (sonst 412)")
+    public ResponseEntity<UserProfileDTO> patchProfile(
+            @PathVariable UUID profileId,
+            @RequestBody ObjectNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication auth) throws IOException {
+        User currentUser = ((UserDetailsImpl) auth.getPrincipal()).user();
+        return withETag(userProfileService.patchProfile(profileId, ProfilePatch.fromMergePatch(patch, objectMapper),
+                ifMatch, currentUser));
     }
 
     // ---- UC3 + UC5: Admin oder Owner löscht Profil ----
     @DeleteMapping("/{profileId}")
-    @PreAuthorize("@userPermissionEvaluator.canModifyProfile(authentication.principal.user, #profileId)")
+    @PreAuthorize("@userPermissionEvaluator.canDeleteProfile(authentication.principal, #profileId)")
     @Operation(summary = "Delete profile by ID",
             description = "Admin oder Besitzer löscht Profil")
     public ResponseEntity<Void> deleteProfile(
@@ -120,9 +197,35 @@ public class UserProfileController {
         return ResponseEntity.noContent().build();
     }
 
+    // ---- UC3: Admin aktualisiert viele Profile (per IDs und/oder Filter) ----
+    @PostMapping("/bulk-update")
+    @PreAuthorize("@userPermissionEvaluator.canBulkModifyProfiles(authentication.principal)")
+    @Operation(summary = "Bulk update profiles",
+            description = "Admin setzt Felder bei allen Profilen, die über IDs und/oder die Suchfilter ausgewählt "
+                    + "sind; Antwort mit Anzahl und Dauer pro Chunk")
+    public ResponseEntity<UserProfileBulkResultDTO> bulkUpdateProfiles(
+            @Valid @RequestBody UserProfileBulkDTO.UpdateDTO updateDTO,
+            Authentication auth) {
+        User currentUser = ((UserDetailsImpl) auth.getPrincipal()).user();
+        return ResponseEntity.ok(userProfileService.bulkUpdateProfiles(updateDTO, currentUser));
+    }
+
+    // ---- UC3: Admin löscht viele Profile (per IDs und/oder Filter) ----
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("@userPermissionEvaluator.canBulkModifyProfiles(authentication.principal)")
+    @Operation(summary = "Bulk delete profiles",
+            description = "Admin löscht alle Profile, die über IDs und/oder die Suchfilter ausgewählt sind; "
+                    + "Antwort mit Anzahl und Dauer pro Chunk")
+    public ResponseEntity<UserProfileBulkResultDTO> bulkDeleteProfiles(
+            @Valid @RequestBody UserProfileBulkDTO selection,
+            Authentication auth) {
+        User currentUser = ((UserDetailsImpl) auth.getPrincipal()).user();
+        return ResponseEntity.ok(userProfileService.bulkDeleteProfiles(selection, currentUser));
+    }
+
     // ---- UC4: Admin sucht/filtert/sortiert Profile ----
     @GetMapping
-    @PreAuthorize("@userPermissionEvaluator.canSearchProfiles(authentication.principal.user)")
+    @PreAuthorize("@userPermissionEvaluator.canSearchProfiles(authentication.principal)")
     @Operation(summary = "Search profiles",
             description = "Admin sucht, filtert und sortiert UserProfiles (mit Pagination)")
     public ResponseEntity<Page<UserProfileDTO>> searchProfiles(
@@ -136,4 +239,91 @@ public class UserProfileController {
         return ResponseEntity.ok(
                 userProfileService.searchProfiles(search, address, minAge, maxAge, pageable, currentUser));
     }
-}
\ No newline at end of file
+
+    // ---- UC4: Admin blättert per Cursor (Keyset-Pagination, ohne Gesamtanzahl) ----
+    @GetMapping(params = "cursor")
+    @PreAuthorize("@userPermissionEvaluator.canSearchProfiles(authentication.principal)")
+    @Operation(summary = "Scroll profiles",
+            description = "Admin blättert per Cursor durch Profile; leerer Cursor für die erste Seite, "
+                    + "danach nextCursor der vorherigen Antwort")
+    public ResponseEntity<UserProfileSliceDTO> scrollProfiles(
+            @RequestParam String cursor,
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String address,
+            @RequestParam(required = false) Integer minAge,
+            @RequestParam(required = false) Integer maxAge,
+            @RequestParam(defaultValue = "20") int size,
+            Sort sort,
+            Authentication auth) {
+        User currentUser = ((UserDetailsImpl) auth.getPrincipal()).user();
+        return ResponseEntity.ok(userProfileService.scrollProfiles(search, address, minAge, maxAge, cursor, sort,
+                size, currentUser));
+    }
+
+    // ---- UC4: Admin exportiert alle Profile samt User-Feldern als Stream ----
+    @GetMapping("/export")
+    @PreAuthorize("@userPermissionEvaluator.canSearchProfiles(authentication.principal)")
+    @Operation(summary = "Export profiles",
+            description = "Admin exportiert alle Profile samt User-Feldern als NDJSON oder CSV, "
+                    + "mit gzip=true komprimiert")
+    public ResponseEntity<StreamingResponseBody> exportProfiles(
+            @RequestParam(name = "format", defaultValue = "ndjson") String formatParameter,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            Authentication auth) {
+        User currentUser = ((UserDetailsImpl) auth.getPrincipal()).user();
+        ProfileExportFormat format = ProfileExportFormat.fromParameter(formatParameter);
+        String filename = "profiles." + format.getFileExtension() + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                userProfileService.exportProfiles(format, out, currentUser);
+                return;
+            }
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            userProfileService.exportProfiles(format, compressed, currentUser);
+            compressed.finish();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    // ---- UC3: Admin importiert Profile (und optional User) aus NDJSON oder CSV ----
+    @PostMapping("/import")
+    @PreAuthorize("@userPermissionEvaluator.canImportProfiles(authentication.principal)")
+    @Operation(summary = "Import profiles",
+            description = "Admin importiert Profile als NDJSON oder CSV (Felder wie beim Export). Pro Zeile "
+                    + "userId eines bestehenden Users oder email (fehlende User werden angelegt). Fehlerhafte "
+                    + "Zeilen werden übersprungen und in der Antwort gemeldet. Body mit Content-Encoding: gzip "
+                    + "wird entpackt.")
+    public ResponseEntity<ProfileImportResult> importProfiles(
+            @RequestParam(name = "format", defaultValue = "ndjson") String formatParameter,
+            HttpServletRequest request,
+            Authentication auth) throws IOException {
+        User currentUser = ((UserDetailsImpl) auth.getPrincipal()).user();
+        ProfileExportFormat format = ProfileExportFormat.fromParameter(formatParameter);
+
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            body = new GZIPInputStream(body, 64 * 1024);
+        }
+        return ResponseEntity.ok(userProfileService.importProfiles(format, body, currentUser));
+    }
+
+    private static ResponseEntity<UserProfileDTO> withETag(UserProfileDTO profile) {
+        return ResponseEntity.ok()
+                .eTag(ProfileETag.of(profile).headerValue())
+                .cacheControl(REVALIDATE)
+                .body(profile);
+    }
+
+    private static ResponseEntity<UserProfileDTO> notModified(ProfileETag eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag.headerValue())
+                .cacheControl(REVALIDATE)
+                .build();
+    }
+}
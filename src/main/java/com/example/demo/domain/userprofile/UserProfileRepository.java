@@ -1,14 +1,21 @@
 package com.example.demo.domain.userprofile;
 
 import com.example.demo.domain.user.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.example.demo.domain.userprofile.search.ProfileSearchDocument;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -20,7 +27,7 @@ import java.util.UUID;
  * - Pagination Support für Admin-Funktionen
  */
 @Repository
-public interface UserProfileRepository extends JpaRepository<UserProfile, UUID> {
+public interface UserProfileRepository extends JpaRepository<UserProfile, UUID>, UserProfileRepositoryCustom {
 
     Optional<UserProfile> findByUser(User user);
 
@@ -29,30 +36,112 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, UUID>
     boolean existsByUserId(UUID userId);
 
     /**
-     * Erweiterte Filtersuche für Admin-Funktionen
-     * Kombiniert mehrere optionale Filter mit AND-Verknüpfung
-     * NULL-Parameter werden ignoriert (dynamische WHERE-Klausel)
-     */
-    @Query("SELECT up FROM UserProfile up WHERE " +
-            "(:address IS NULL OR LOWER(up.address) LIKE LOWER(CONCAT('%', :address, '%'))) AND " +
-            "(:minAge IS NULL OR up.age >= :minAge) AND " +
-            "(:maxAge IS NULL OR up.age <= :maxAge)")
-    Page<UserProfile> findProfilesWithFilters(
-            @Param("address") String address,
-            @Param("minAge") Integer minAge,
-            @Param("maxAge") Integer maxAge,
-            Pageable pageable
-    );
-
-    /**
-     * Volltext-Suche über User- und Profil-Felder
-     * Durchsucht firstName, lastName, email und address mit OR-Verknüpfung
-     * Case-insensitive durch LOWER()-Funktionen
-     */
-    @Query("SELECT up FROM UserProfile up WHERE " +
-            "LOWER(up.user.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(up.user.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(up.user.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(up.address) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    Page<UserProfile> searchProfiles(@Param("searchTerm") String searchTerm, Pageable pageable);
-}
\ No newline at end of file
+     * Lädt die Profile einer Seite samt User in einem Statement (Reihenfolge nicht garantiert)
+     */
+    @Query("SELECT up FROM UserProfile up JOIN FETCH up.user WHERE up.id IN :ids")
+    List<UserProfile> findAllWithUserByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Liefert nur die User-ID des Besitzers, ohne Profil, User, Rollen oder Authorities zu laden
+     */
+    @Query("SELECT up.user.id FROM UserProfile up WHERE up.id = :profileId")
+    Optional<UUID> findOwnerIdById(@Param("profileId") UUID profileId);
+
+    /**
+     * Nur ID und Version für bedingte GETs (If-None-Match), ohne Profil oder User zu laden
+     */
+    @Query("SELECT new com.example.demo.domain.userprofile.ProfileETag(up.id, up.version) "
+            + "FROM UserProfile up WHERE up.id = :profileId")
+    Optional<ProfileETag> findETagById(@Param("profileId") UUID profileId);
+
+    @Query("SELECT new com.example.demo.domain.userprofile.ProfileETag(up.id, up.version) "
+            + "FROM UserProfile up WHERE up.user.id = :userId")
+    Optional<ProfileETag> findETagByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Erhöht die Version der Profile eines Users, dessen Name, Email oder Rollen Teil der Profil-Antwort sind
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE UserProfile up SET up.version = up.version + 1 WHERE up.user.id = :userId")
+    int incrementVersionOfUser(@Param("userId") UUID userId);
+
+    /**
+     * Erhöht die Version der Profile aller User mit der Rolle, deren Name und Authorities Teil der Profil-Antwort
+     * sind
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE UserProfile up SET up.version = up.version + 1 WHERE up.user.id IN "
+            + "(SELECT u.id FROM User u JOIN u.roles r WHERE r.id = :roleId)")
+    int incrementVersionOfRole(@Param("roleId") UUID roleId);
+
+    /**
+     * Diejenigen der angegebenen User, die bereits ein Profil haben
+     */
+    @Query("SELECT up.user.id FROM UserProfile up WHERE up.user.id IN :userIds")
+    Set<UUID> findUserIdsWithProfile(@Param("userIds") Collection<UUID> userIds);
+
+    /**
+     * Projektionen für den In-Memory-Suchindex, ohne Entities, Rollen oder Authorities zu laden
+     */
+    String SEARCH_DOCUMENT = "SELECT new com.example.demo.domain.userprofile.search.ProfileSearchDocument("
+            + "up.id, u.id, u.firstName, u.lastName, u.email, up.address, up.age, up.birthdate) "
+            + "FROM UserProfile up JOIN up.user u";
+
+    @Query(SEARCH_DOCUMENT)
+    List<ProfileSearchDocument> findAllSearchDocuments();
+
+    @Query(SEARCH_DOCUMENT + " WHERE up.id = :profileId")
+    Optional<ProfileSearchDocument> findSearchDocument(@Param("profileId") UUID profileId);
+
+    @Query(SEARCH_DOCUMENT + " WHERE up.id IN :profileIds")
+    List<ProfileSearchDocument> findSearchDocuments(@Param("profileIds") Collection<UUID> profileIds);
+
+    @Query(SEARCH_DOCUMENT + " WHERE u.id = :userId")
+    Optional<ProfileSearchDocument> findSearchDocumentByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Löscht das Profil direkt, ohne es vorher zu laden
+     *
+     * @return Anzahl gelöschter Zeilen (0 oder 1)
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM UserProfile up WHERE up.id = :profileId")
+    int deleteProfileById(@Param("profileId") UUID profileId);
+
+    /**
+     * Löscht das Profil des Users direkt (WHERE id_user = ?), ohne es vorher zu laden
+     *
+     * @return Anzahl gelöschter Zeilen (0 oder 1)
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM UserProfile up WHERE up.user.id = :userId")
+    int deleteProfileByUserId(@Param("userId") UUID userId);
+
+    /**
+     * Berechnet den Suchtext aller Profile eines Users in der Datenbank neu
+     * (nach Änderungen am User oder beim Anlegen mit unvollständigem Principal)
+     *
+     * Der Hint beschränkt die Invalidierung auf user_profile, ohne ihn würde Hibernate bei nativen Updates
+     * den ganzen Second-Level-Cache (Rollen, Authorities) leeren.
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_profile"))
+    @Query(value = "UPDATE user_profile SET search_text = " + UserProfileSearch.SEARCH_TEXT_SQL
+            + " WHERE id_user = :userId", nativeQuery = true)
+    int refreshSearchText(@Param("userId") UUID userId);
+
+    /**
+     * Berechnet den Suchtext der angegebenen Profile neu (nach einem Massen-Update der Adresse)
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_profile"))
+    @Query(value = "UPDATE user_profile SET search_text = " + UserProfileSearch.SEARCH_TEXT_SQL
+            + " WHERE id IN (:profileIds)", nativeQuery = true)
+    int refreshSearchTextOfProfiles(@Param("profileIds") Collection<UUID> profileIds);
+}
@@ -0,0 +1,77 @@
+package com.example.demo.domain.userprofile;
+
+import com.example.demo.domain.userprofile.export.ProfileExportRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Abfragen, die sich nicht als statische @Query formulieren lassen
+ */
+public interface UserProfileRepositoryCustom {
+
+    /**
+     * Admin-Suche mit den gesetzten Filtern (Suchtext, Adresse, Alter), alle mit AND verknüpft.
+     * Die Gesamtanzahl wird nur abgefragt, wenn sie sich nicht aus der Seite selbst ergibt.
+     */
+    Page<UserProfile> findProfiles(ProfileFilter filter, Pageable pageable);
+
+    /**
+     * Keyset-Pagination: bis zu {@code limit} Profile in der angegebenen Sortierung (mit ID als zweitem
+     * Schlüssel), beginnend nach {@code after}. Ohne Cursor ab dem Anfang. Es wird kein COUNT ausgeführt.
+     */
+    List<UserProfile> findProfilesAfter(ProfileFilter filter, ProfileCursor after, Sort.Order order, int limit);
+
+    /**
+     * Bis zu {@code limit} Profil-IDs mit den gesetzten Filtern, aufsteigend nach ID und grösser als {@code after}
+     * (ohne after ab dem Anfang). Grundlage für Massenänderungen in Chunks.
+     */
+    List<UUID> findProfileIdsAfter(ProfileFilter filter, UUID after, int limit);
+
+    /**
+     * Setzt die nicht-null Felder von {@code changes} bei den Profilen mit den angegebenen IDs, die auch den
+     * Filtern entsprechen, mit einem einzigen UPDATE. Der Suchtext wird dabei nicht nachgeführt.
+     *
+     * @return Anzahl geänderter Zeilen
+     */
+    int updateProfiles(Collection<UUID> ids, ProfileFilter filter, ProfileChanges changes);
+
+    /**
+     * Legt das Profil mit einem einzigen INSERT an, den Suchtext aus den Daten des Users in der Datenbank.
+     * Hat der User bereits ein Profil, greift der Unique-Constraint auf id_user und es wird nichts eingefügt
+     * (ON CONFLICT DO NOTHING), auch bei gleichzeitigen Aufrufen.
+     *
+     * @return 1, oder 0 wenn der User bereits ein Profil hat oder nicht existiert
+     */
+    int insertProfile(UserProfile profile);
+
+    /**
+     * Setzt die Felder des Patches beim Profil mit einem einzigen UPDATE, aber nur, solange es noch die Version
+     * {@code version} hat. Die Version wird im selben Statement erhöht, der Suchtext nur gesetzt, wenn
+     * {@code searchText} nicht null ist.
+     *
+     * @return 1, oder 0 wenn das Profil nicht (mehr) in dieser Version existiert
+     */
+    int patchProfile(UUID profileId, long version, ProfilePatch patch, String searchText);
+
+    /**
+     * Löscht die Profile mit den angegebenen IDs, die auch den Filtern entsprechen, mit einem einzigen DELETE
+     *
+     * @return Anzahl gelöschter Zeilen
+     */
+    int deleteProfiles(Collection<UUID> ids, ProfileFilter filter);
+
+    /**
+     * Liest alle Profile samt User-Feldern über einen Forward-only-Cursor und übergibt sie einzeln an
+     * {@code sink}. Es werden nie mehr als eine Fetch-Size an Zeilen gleichzeitig gehalten.
+     * Muss in einer Transaktion laufen, sonst liest der PostgreSQL-Treiber trotz Fetch-Size alles auf einmal.
+     *
+     * @return Anzahl der übergebenen Zeilen
+     */
+    long forEachExportRow(Consumer<ProfileExportRow> sink);
+}
@@ -0,0 +1,228 @@
+package com.example.demo.domain.userprofile;
+
+import com.example.demo.domain.userprofile.export.ProfileExportRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public class UserProfileRepositoryCustomImpl implements UserProfileRepositoryCustom {
+
+    // Zeilen pro Roundtrip beim Export: genug, um die Latenz zu verstecken, klein genug für einen flachen Heap
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final int EXPORT_CLEAR_INTERVAL = 10_000;
+
+    private static final String EXPORT_ROWS = "SELECT new com.example.demo.domain.userprofile.export.ProfileExportRow("
+            + "up.id, u.id, u.firstName, u.lastName, u.email, up.address, up.birthdate, up.age, up.profileImgUrl) "
+            + "FROM UserProfile up JOIN up.user u";
+
+    private static final String INSERT_PROFILE = "INSERT INTO user_profile "
+            + "(id, id_user, address, birthdate, profile_img_url, age, version, search_text) "
+            + "SELECT :id, u.id, :address, :birthdate, :profileImgUrl, :age, :version, "
+            + UserProfileSearch.NEW_PROFILE_SEARCH_TEXT_SQL + " FROM users u WHERE u.id = :userId "
+            + "ON CONFLICT DO NOTHING";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<UserProfile> findProfiles(ProfileFilter filter, Pageable pageable) {
+        ProfileQueryComposer.Shape shape = ProfileQueryComposer.shape(filter);
+
+        TypedQuery<UserProfile> query = entityManager.createQuery(
+                QueryUtils.applySorting(shape.select(), pageable.getSort(), "up"), UserProfile.class);
+        ProfileQueryComposer.bind(query, filter);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> {
+            TypedQuery<Long> count = entityManager.createQuery(shape.count(), Long.class);
+            ProfileQueryComposer.bind(count, filter);
+            return count.getSingleResult();
+        });
+    }
+
+    @Override
+    public List<UserProfile> findProfilesAfter(ProfileFilter filter, ProfileCursor after, Sort.Order order,
+                                               int limit) {
+        String key = "up." + order.getProperty();
+        String direction = order.isDescending() ? "DESC" : "ASC";
+        boolean byId = "id".equals(order.getProperty());
+
+        List<String> predicates = new ArrayList<>(ProfileQueryComposer.shape(filter).predicates());
+        if (after != null) {
+            // Tupelvergleich, damit die Datenbank einen Index auf (Schlüssel, id) direkt ansteuern kann
+            String comparison = order.isDescending() ? "<" : ">";
+            predicates.add(byId ? "up.id " + comparison + " :id"
+                    : "(" + key + ", up.id) " + comparison + " (:key, :id)");
+        }
+
+        StringBuilder jpql = new StringBuilder(ProfileQueryComposer.SELECT);
+        if (!predicates.isEmpty()) {
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+        }
+        jpql.append(" ORDER BY ");
+        if (!byId) {
+            jpql.append(key).append(' ').append(direction).append(", ");
+        }
+        jpql.append("up.id ").append(direction);
+
+        TypedQuery<UserProfile> query = entityManager.createQuery(jpql.toString(), UserProfile.class)
+                .setMaxResults(limit);
+        ProfileQueryComposer.bind(query, filter);
+        if (after != null) {
+            query.setParameter("id", after.id());
+            if (!byId) {
+                query.setParameter("key", after.key());
+            }
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<UUID> findProfileIdsAfter(ProfileFilter filter, UUID after, int limit) {
+        List<String> predicates = new ArrayList<>(ProfileQueryComposer.shape(filter).predicates());
+        if (after != null) {
+            predicates.add("up.id > :after");
+        }
+        TypedQuery<UUID> query = entityManager.createQuery("SELECT up.id FROM UserProfile up"
+                        + where(predicates) + " ORDER BY up.id", UUID.class)
+                .setMaxResults(limit);
+        ProfileQueryComposer.bind(query, filter);
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public int updateProfiles(Collection<UUID> ids, ProfileFilter filter, ProfileChanges changes) {
+        List<String> assignments = new ArrayList<>();
+        if (changes.address() != null) assignments.add("up.address = :newAddress");
+        if (changes.birthdate() != null) assignments.add("up.birthdate = :newBirthdate");
+        if (changes.profileImgUrl() != null) assignments.add("up.profileImgUrl = :newProfileImgUrl");
+        if (changes.age() != null) assignments.add("up.age = :newAge");
+        if (assignments.isEmpty()) {
+            return 0;
+        }
+        // Wie bei Updates über die Entity, damit ETags und If-Match die Änderung sehen
+        assignments.add("up.version = up.version + 1");
+
+        Query update = entityManager.createQuery("UPDATE UserProfile up SET " + String.join(", ", assignments)
+                + where(byIds(filter)));
+        if (changes.address() != null) update.setParameter("newAddress", changes.address());
+        if (changes.birthdate() != null) update.setParameter("newBirthdate", changes.birthdate());
+        if (changes.profileImgUrl() != null) update.setParameter("newProfileImgUrl", changes.profileImgUrl());
+        if (changes.age() != null) update.setParameter("newAge", changes.age());
+        ProfileQueryComposer.bind(update, filter);
+        return update.setParameter("ids", ids).executeUpdate();
+    }
+
+    @Override
+    public int insertProfile(UserProfile profile) {
+        NativeQuery<?> insert = entityManager.createNativeQuery(INSERT_PROFILE).unwrap(NativeQuery.class);
+        // Typisierte Parameter, sonst hätte eine fehlende Profilbild-URL auf PostgreSQL keinen Typ
+        return insert.setParameter("id", profile.getId(), StandardBasicTypes.UUID)
+                .setParameter("userId", profile.getUser().getId(), StandardBasicTypes.UUID)
+                .setParameter("address", profile.getAddress(), StandardBasicTypes.STRING)
+                .setParameter("birthdate", profile.getBirthdate(), StandardBasicTypes.LOCAL_DATE)
+                .setParameter("profileImgUrl", profile.getProfileImgUrl(), StandardBasicTypes.STRING)
+                .setParameter("age", profile.getAge(), StandardBasicTypes.INTEGER)
+                .setParameter("version", profile.getVersion(), StandardBasicTypes.LONG)
+                // Sonst leert Hibernate bei nativen Statements den ganzen Second-Level-Cache
+                .addSynchronizedQuerySpace("user_profile")
+                .executeUpdate();
+    }
+
+    @Override
+    public int patchProfile(UUID profileId, long version, ProfilePatch patch, String searchText) {
+        List<String> assignments = new ArrayList<>();
+        Map<String, Object> parameters = new HashMap<>();
+        if (patch.changes(ProfilePatch.Field.ADDRESS)) assign(assignments, parameters, "address", patch.address());
+        if (patch.changes(ProfilePatch.Field.BIRTHDATE)) {
+            assign(assignments, parameters, "birthdate", patch.birthdate());
+        }
+        if (patch.changes(ProfilePatch.Field.PROFILE_IMG_URL)) {
+            assign(assignments, parameters, "profileImgUrl", patch.profileImgUrl());
+        }
+        if (patch.changes(ProfilePatch.Field.AGE)) assign(assignments, parameters, "age", patch.age());
+        if (searchText != null) assign(assignments, parameters, "searchText", searchText);
+        assignments.add("up.version = up.version + 1");
+
+        Query update = entityManager.createQuery("UPDATE UserProfile up SET " + String.join(", ", assignments)
+                + " WHERE up.id = :id AND up.version = :version");
+        parameters.forEach(update::setParameter);
+        return update.setParameter("id", profileId)
+                .setParameter("version", version)
+                .executeUpdate();
+    }
+
+    // null als Literal, ein Parameter ohne Wert hätte keinen Typ
+    private static void assign(List<String> assignments, Map<String, Object> parameters, String attribute,
+                               Object value) {
+        if (value == null) {
+            assignments.add("up." + attribute + " = NULL");
+        } else {
+            assignments.add("up." + attribute + " = :" + attribute);
+            parameters.put(attribute, value);
+        }
+    }
+
+    @Override
+    public int deleteProfiles(Collection<UUID> ids, ProfileFilter filter) {
+        Query delete = entityManager.createQuery("DELETE FROM UserProfile up" + where(byIds(filter)));
+        ProfileQueryComposer.bind(delete, filter);
+        return delete.setParameter("ids", ids).executeUpdate();
+    }
+
+    private static List<String> byIds(ProfileFilter filter) {
+        List<String> predicates = new ArrayList<>();
+        predicates.add("up.id IN :ids");
+        predicates.addAll(ProfileQueryComposer.shape(filter).predicates());
+        return predicates;
+    }
+
+    private static String where(List<String> predicates) {
+        return predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates);
+    }
+
+    @Override
+    public long forEachExportRow(Consumer<ProfileExportRow> sink) {
+        long count = 0;
+        try (ScrollableResults<ProfileExportRow> rows = entityManager.unwrap(Session.class)
+                .createQuery(EXPORT_ROWS, ProfileExportRow.class)
+                .setFetchSize(EXPORT_FETCH_SIZE)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                sink.accept(rows.get());
+                // Projektionen werden nicht verwaltet, der Kontext soll aber auch bei langen Exporten nicht wachsen
+                if (++count % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+}
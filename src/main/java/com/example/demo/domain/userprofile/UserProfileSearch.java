@@ -0,0 +1,76 @@
+package com.example.demo.domain.userprofile;
+
+import com.example.demo.domain.user.User;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * UserProfileSearch - Aufbau des denormalisierten Suchtexts
+ *
+ * Die Admin-Suche vergleicht nur noch eine Spalte (user_profile.search_text) statt vier
+ * LIKE-Bedingungen über zwei Tabellen. Der Suchtext enthält Vorname, Nachname, Email und Adresse,
+ * kleingeschrieben und durch Zeilenumbrüche getrennt, damit Treffer nicht über Feldgrenzen gehen.
+ * Auf PostgreSQL wird die Spalte über einen Trigramm-Index (pg_trgm) bedient, siehe
+ * {@link UserProfileSearchIndexInitializer}.
+ */
+public final class UserProfileSearch {
+
+    public static final String SEPARATOR = "\n";
+
+    /**
+     * Gleiche Berechnung wie {@link #searchText(User, String)}, in SQL für user_profile.
+     * Wird für Änderungen am User verwendet.
+     */
+    static final String SEARCH_TEXT_SQL = "(SELECT LOWER(COALESCE(u.first_name, '') || CHR(10) || "
+            + "COALESCE(u.last_name, '') || CHR(10) || COALESCE(u.email, '') || CHR(10) || "
+            + "COALESCE(user_profile.address, '')) FROM users u WHERE u.id = user_profile.id_user)";
+
+    /**
+     * Gleiche Berechnung für ein neues Profil, in einem INSERT ... SELECT aus users u mit der Adresse als
+     * Parameter :address
+     */
+    static final String NEW_PROFILE_SEARCH_TEXT_SQL = "LOWER(COALESCE(u.first_name, '') || CHR(10) || "
+            + "COALESCE(u.last_name, '') || CHR(10) || COALESCE(u.email, '') || CHR(10) || COALESCE(:address, ''))";
+
+    private UserProfileSearch() {
+    }
+
+    public static String searchText(User user, String address) {
+        return searchText(user.getFirstName(), user.getLastName(), user.getEmail(), address);
+    }
+
+    public static String searchText(String firstName, String lastName, String email, String address) {
+        return String.join(SEPARATOR,
+                        Objects.toString(firstName, ""),
+                        Objects.toString(lastName, ""),
+                        Objects.toString(email, ""),
+                        Objects.toString(address, ""))
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Normalisierter Suchbegriff, wie er im Suchtext vorkommen muss
+     */
+    public static String normalizeTerm(String searchTerm) {
+        return searchTerm.strip()
+                .replace(SEPARATOR, " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * LIKE-Muster für einen Suchbegriff; %, _ und \ im Begriff werden maskiert (ESCAPE '\')
+     */
+    public static String likePattern(String searchTerm) {
+        String term = normalizeTerm(searchTerm);
+        StringBuilder pattern = new StringBuilder(term.length() + 2).append('%');
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c == '%' || c == '_' || c == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.domain.userprofile;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * UserProfileSearchIndexInitializer - Trigramm-Index für die Admin-Suche
+ *
+ * Das Schema wird von Hibernate erzeugt, der GIN-Index auf user_profile.search_text lässt sich dort
+ * nicht deklarieren und wird deshalb nach dem Start angelegt. Nur auf PostgreSQL; auf H2 (Tests)
+ * läuft dieselbe Abfrage auf der Spalte ohne Index.
+ */
+@Component
+public class UserProfileSearchIndexInitializer {
+
+    private static final Logger logger = LogManager.getLogger(UserProfileSearchIndexInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserProfileSearchIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndex() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            logger.info("Search index: {} has no trigram index support, profile search runs without index", database);
+            return;
+        }
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS user_profile_search_text_trgm "
+                    + "ON user_profile USING gin (search_text gin_trgm_ops)");
+            logger.info("Search index: trigram index on user_profile.search_text is ready");
+        } catch (DataAccessException e) {
+            // z.B. fehlende Rechte für CREATE EXTENSION - die Suche funktioniert weiterhin, nur ohne Index
+            logger.warn("Search index: could not create trigram index, profile search runs without index", e);
+        }
+    }
+}
@@ -1,10 +1,20 @@
 package com.example.demo.domain.userprofile;
 
 import com.example.demo.domain.user.User;
+import com.example.demo.domain.userprofile.dto.UserProfileBulkDTO;
+import com.example.demo.domain.userprofile.dto.UserProfileBulkResultDTO;
 import com.example.demo.domain.userprofile.dto.UserProfileDTO;
+import com.example.demo.domain.userprofile.dto.UserProfileSliceDTO;
+import com.example.demo.domain.userprofile.export.ProfileExportFormat;
+import com.example.demo.domain.userprofile.importer.ProfileImportResult;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -25,19 +35,31 @@ public interface UserProfileService {
 
     // UC2: User CRUD own profile
     UserProfileDTO getOwnProfile(User currentUser);
-    UserProfileDTO updateOwnProfile(UserProfileDTO.CreateUpdateDTO updateDTO, User currentUser);
+    UserProfileDTO updateOwnProfile(UserProfileDTO.CreateUpdateDTO updateDTO, String ifMatch, User currentUser);
+    UserProfileDTO patchOwnProfile(ProfilePatch patch, String ifMatch, User currentUser);
+    Optional<ProfileETag> findOwnProfileETag(User currentUser);
     void deleteOwnProfile(User currentUser);
 
     // UC3: Admin CRUD any profile
     UserProfileDTO getProfileById(UUID profileId, User currentUser);
-    UserProfileDTO updateProfile(UUID profileId, UserProfileDTO.CreateUpdateDTO updateDTO, User currentUser);
+    UserProfileDTO updateProfile(UUID profileId, UserProfileDTO.CreateUpdateDTO updateDTO, String ifMatch,
+                                 User currentUser);
+    UserProfileDTO patchProfile(UUID profileId, ProfilePatch patch, String ifMatch, User currentUser);
+    Optional<ProfileETag> findProfileETag(UUID profileId);
     void deleteProfile(UUID profileId, User currentUser);
+    UserProfileBulkResultDTO bulkUpdateProfiles(UserProfileBulkDTO.UpdateDTO updateDTO, User currentUser);
+    UserProfileBulkResultDTO bulkDeleteProfiles(UserProfileBulkDTO selection, User currentUser);
 
     // UC5: Admin search/filter with pagination
     Page<UserProfileDTO> searchProfiles(String searchTerm, String address,
                                         Integer minAge, Integer maxAge,
                                         Pageable pageable, User currentUser);
     Page<UserProfileDTO> getAllProfiles(Pageable pageable, User currentUser);
+    UserProfileSliceDTO scrollProfiles(String searchTerm, String address, Integer minAge, Integer maxAge,
+                                       String cursor, Sort sort, int size, User currentUser);
+    long exportProfiles(ProfileExportFormat format, OutputStream out, User currentUser) throws IOException;
+    ProfileImportResult importProfiles(ProfileExportFormat format, InputStream in, User currentUser)
+            throws IOException;
 
     // Helper-Methoden für interne Verwendung und andere Services
     boolean existsProfileForUser(User user);
@@ -1,18 +1,55 @@
 package com.example.demo.domain.userprofile;
 
+import com.example.demo.core.generic.LoadedEntityRegistry;
+import com.example.demo.core.security.helpers.JwtProperties;
 import com.example.demo.domain.user.User;
+import com.example.demo.domain.user.UserRepository;
+import com.example.demo.domain.user.dto.UserDTO;
+import com.example.demo.domain.userprofile.bulk.ProfileBulkOperations;
+import com.example.demo.domain.userprofile.cache.ProfileCache;
+import com.example.demo.domain.userprofile.dto.UserProfileBulkDTO;
+import com.example.demo.domain.userprofile.dto.UserProfileBulkResultDTO;
 import com.example.demo.domain.userprofile.dto.UserProfileDTO;
 import com.example.demo.domain.userprofile.dto.UserProfileMapper;
+import com.example.demo.domain.userprofile.dto.UserProfileSliceDTO;
+import com.example.demo.domain.userprofile.export.ProfileExportFormat;
+import com.example.demo.domain.userprofile.export.ProfileExportWriter;
+import com.example.demo.domain.userprofile.importer.ProfileImportResult;
+import com.example.demo.domain.userprofile.importer.ProfileImporter;
+import com.example.demo.domain.userprofile.search.ProfileSearchDocument;
+import com.example.demo.domain.userprofile.search.ProfileSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * UserProfileServiceImpl - Business Logic Implementation für UserProfile
@@ -27,7 +64,7 @@ import java.util.UUID;
  * Komponenten:
  * - Transaktionale Service-Schicht mit @Transactional
  * - Umfassendes Logging für alle Use Cases
- * - Partial Updates mit Null-Checks
+ * - Partial Updates (PUT und JSON Merge Patch) als ein bedingtes UPDATE
  * - MapStruct Mapper für Entity/DTO-Konvertierung
  * - Reine Business-Logik ohne Security-Checks (diese erfolgen im Controller)
  */
@@ -37,15 +74,46 @@ public class UserProfileServiceImpl implements UserProfileService {
 
     private static final Logger logger = LogManager.getLogger(UserProfileServiceImpl.class);
     private static final String PROFILE_NOT_FOUND = "Profile not found";
+    private static final int MAX_SLICE_SIZE = 2000;
 
     private final UserProfileRepository userProfileRepository;
     private final UserProfileMapper userProfileMapper;
+    private final ProfileOwnershipIndex profileOwnershipIndex;
+    private final LoadedEntityRegistry loadedEntityRegistry;
+    private final ProfileSearchIndex profileSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final ProfileImporter profileImporter;
+    private final ProfileBulkOperations profileBulkOperations;
+    private final ProfileCache profileCache;
+    private final Validator validator;
+    private final UserRepository userRepository;
+    private final boolean statelessPrincipal;
 
     @Autowired
     public UserProfileServiceImpl(UserProfileRepository repo,
-                                  @Qualifier("userProfileMapperImpl") UserProfileMapper mapper) {
+                                  @Qualifier("userProfileMapperImpl") UserProfileMapper mapper,
+                                  ProfileOwnershipIndex profileOwnershipIndex,
+                                  LoadedEntityRegistry loadedEntityRegistry,
+                                  ProfileSearchIndex profileSearchIndex,
+                                  ObjectMapper objectMapper,
+                                  ProfileImporter profileImporter,
+                                  ProfileBulkOperations profileBulkOperations,
+                                  ProfileCache profileCache,
+                                  Validator validator,
+                                  UserRepository userRepository,
+                                  JwtProperties jwtProperties) {
         this.userProfileRepository = repo;
         this.userProfileMapper = mapper;
+        this.profileOwnershipIndex = profileOwnershipIndex;
+        this.loadedEntityRegistry = loadedEntityRegistry;
+        this.profileSearchIndex = profileSearchIndex;
+        this.objectMapper = objectMapper;
+        this.profileImporter = profileImporter;
+        this.profileBulkOperations = profileBulkOperations;
+        this.profileCache = profileCache;
+        this.validator = validator;
+        this.userRepository = userRepository;
+        this.statelessPrincipal = jwtProperties.isStatelessPrincipal();
     }
 
     // ---- UC1: User erstellt eigenes Profil ----
@@ -53,19 +121,34 @@ public class UserProfileServiceImpl implements UserProfileService {
     public UserProfileDTO createProfile(UserProfileDTO.CreateUpdateDTO dto, User currentUser) {
         logger.info("UC1: User {} is creating a profile with data={}", currentUser.getEmail(), dto);
 
-        // Business Rule: Ein User kann nur ein Profil haben
-        if (userProfileRepository.existsByUserId(currentUser.getId())) {
-            logger.warn("UC1: Profile creation failed → User {} already has a profile", currentUser.getEmail());
-            throw new IllegalStateException("User already has a profile");
-        }
-
         UserProfile profile = userProfileMapper.toEntity(dto);
+        profile.setId(UUID.randomUUID());
         profile.setUser(currentUser);
 
-        UserProfile saved = userProfileRepository.save(profile);
-        logger.info("UC1: Profile successfully created for {} with profileId={}", currentUser.getEmail(), saved.getId());
+        // Business Rule: Ein User kann nur ein Profil haben. Der Unique-Constraint auf id_user setzt sie im INSERT
+        // selbst durch, ohne vorherige Abfrage und auch bei gleichzeitigen Requests
+        if (insertProfile(profile) == 0) {
+            // Nur im Fehlerfall: bestehendes Profil oder User, der inzwischen gelöscht wurde
+            if (!userProfileRepository.existsByUserId(currentUser.getId())) {
+                logger.warn("UC1: Profile creation failed → User {} not found", currentUser.getEmail());
+                throw new NoSuchElementException("User not found");
+            }
+            logger.warn("UC1: Profile creation failed → User {} already has a profile", currentUser.getEmail());
+            throw new ProfileAlreadyExistsException("User already has a profile");
+        }
+
+        profileOwnershipIndex.register(profile.getId(), currentUser.getId());
+        profileSearchIndex.refresh(profile.getId());
+        profileCache.invalidateUser(currentUser.getId());
+        logger.info("UC1: Profile successfully created for {} with profileId={}", currentUser.getEmail(),
+                profile.getId());
 
-        return userProfileMapper.toDTO(saved);
+        // Im stateless Modus kennt der Principal nur die Claims (ohne Namen und IDs der Rollen), die Antwort
+        // braucht aber den vollständigen User
+        if (statelessPrincipal) {
+            profile.setUser(userRepository.findById(currentUser.getId()).orElseThrow());
+        }
+        return userProfileMapper.toDTO(profile);
     }
 
     // ---- UC2: User liest eigenes Profil ----
@@ -73,51 +156,61 @@ public class UserProfileServiceImpl implements UserProfileService {
     public UserProfileDTO getOwnProfile(User currentUser) {
         logger.info("UC2: User {} retrieving own profile", currentUser.getEmail());
 
-        UserProfile profile = userProfileRepository.findByUserId(currentUser.getId())
-                .orElseThrow(() -> {
-                    logger.warn("UC2: Profile not found for {}", currentUser.getEmail());
-                    return new RuntimeException(PROFILE_NOT_FOUND);
-                });
-
-        return userProfileMapper.toDTO(profile);
+        return profileCache.getByUserId(currentUser.getId(), () -> {
+            UserProfile profile = userProfileRepository.findByUserId(currentUser.getId())
+                    .orElseThrow(() -> {
+                        logger.warn("UC2: Profile not found for {}", currentUser.getEmail());
+                        return new RuntimeException(PROFILE_NOT_FOUND);
+                    });
+            return userProfileMapper.toDTO(profile);
+        });
     }
 
     // ---- UC2: User aktualisiert eigenes Profil ----
     @Override
-    public UserProfileDTO updateOwnProfile(UserProfileDTO.CreateUpdateDTO dto, User currentUser) {
+    public UserProfileDTO updateOwnProfile(UserProfileDTO.CreateUpdateDTO dto, String ifMatch, User currentUser) {
         logger.info("UC2: User {} updating their profile with data={}", currentUser.getEmail(), dto);
 
-        UserProfile profile = userProfileRepository.findByUserId(currentUser.getId())
-                .orElseThrow(() -> {
-                    logger.warn("UC2: Profile not found for {} during update", currentUser.getEmail());
-                    return new RuntimeException(PROFILE_NOT_FOUND);
-                });
-
         // Partial Update: nur nicht-null Werte aktualisieren
-        if (dto.getAddress() != null) profile.setAddress(dto.getAddress());
-        if (dto.getAge() != null) profile.setAge(dto.getAge());
-        if (dto.getBirthdate() != null) profile.setBirthdate(dto.getBirthdate());
-        if (dto.getProfileImgUrl() != null) profile.setProfileImgUrl(dto.getProfileImgUrl());
-
-        UserProfile updated = userProfileRepository.save(profile);
+        UserProfileDTO updated = patchOwn(ProfilePatch.ofNonNull(dto), ifMatch, currentUser);
         logger.info("UC2: Profile updated successfully (profileId={})", updated.getId());
 
-        return userProfileMapper.toDTO(updated);
+        return updated;
+    }
+
+    // ---- UC2: User ändert einzelne Felder des eigenen Profils (JSON Merge Patch) ----
+    @Override
+    public UserProfileDTO patchOwnProfile(ProfilePatch patch, String ifMatch, User currentUser) {
+        logger.info("UC2: User {} patching their profile with data={}", currentUser.getEmail(), patch);
+
+        UserProfileDTO updated = patchOwn(patch, ifMatch, currentUser);
+        logger.info("UC2: Profile patched successfully (profileId={})", updated.getId());
+
+        return updated;
+    }
+
+    // ---- UC2: Version des eigenen Profils für If-None-Match ----
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ProfileETag> findOwnProfileETag(User currentUser) {
+        return userProfileRepository.findETagByUserId(currentUser.getId());
     }
 
     // ---- UC2: User löscht eigenes Profil ----
+    // Ein DELETE über die User-ID, ohne das Profil vorher zu laden
     @Override
     public void deleteOwnProfile(User currentUser) {
         logger.info("UC2: User {} deleting own profile", currentUser.getEmail());
 
-        UserProfile profile = userProfileRepository.findByUserId(currentUser.getId())
-                .orElseThrow(() -> {
-                    logger.warn("UC2: Profile not found for {} during deletion", currentUser.getEmail());
-                    return new RuntimeException(PROFILE_NOT_FOUND);
-                });
+        if (userProfileRepository.deleteProfileByUserId(currentUser.getId()) == 0) {
+            logger.warn("UC2: Profile not found for {} during deletion", currentUser.getEmail());
+            throw new NoSuchElementException(PROFILE_NOT_FOUND);
+        }
 
-        userProfileRepository.delete(profile);
-        logger.info("UC2: Profile {} deleted successfully for user {}", profile.getId(), currentUser.getEmail());
+        profileOwnershipIndex.removeOwner(currentUser.getId());
+        profileSearchIndex.deleteUser(currentUser.getId());
+        profileCache.invalidateUser(currentUser.getId());
+        logger.info("UC2: Profile deleted successfully for user {}", currentUser.getEmail());
     }
 
     // ---- UC3: Admin oder Owner liest Profil (Security im Controller) ----
@@ -125,44 +218,98 @@ public class UserProfileServiceImpl implements UserProfileService {
     public UserProfileDTO getProfileById(UUID profileId, User currentUser) {
         logger.info("UC3: User {} retrieving profileId={}", currentUser.getEmail(), profileId);
 
-        UserProfile profile = userProfileRepository.findById(profileId)
-                .orElseThrow(() -> new RuntimeException(PROFILE_NOT_FOUND));
+        return profileCache.get(profileId, () -> userProfileMapper.toDTO(findProfile(profileId)));
+    }
 
-        return userProfileMapper.toDTO(profile);
+    // ---- UC3: Version eines Profils für If-None-Match (Security im Controller) ----
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ProfileETag> findProfileETag(UUID profileId) {
+        // Die Berechtigungsprüfung hat das Profil unter Umständen schon geladen
+        return loadedEntityRegistry.find(UserProfile.class, profileId)
+                .map(ProfileETag::of)
+                .or(() -> userProfileRepository.findETagById(profileId));
     }
 
     // ---- UC3: Admin oder Owner aktualisiert Profil (Security im Controller) ----
     @Override
-    public UserProfileDTO updateProfile(UUID profileId, UserProfileDTO.CreateUpdateDTO dto, User currentUser) {
+    public UserProfileDTO updateProfile(UUID profileId, UserProfileDTO.CreateUpdateDTO dto, String ifMatch,
+                                        User currentUser) {
         logger.info("UC3: User {} updating profileId={} with data={}", currentUser.getEmail(), profileId, dto);
 
-        UserProfile profile = userProfileRepository.findById(profileId)
-                .orElseThrow(() -> new RuntimeException(PROFILE_NOT_FOUND));
-
         // Partial Update: nur nicht-null Werte aktualisieren
-        if (dto.getAddress() != null) profile.setAddress(dto.getAddress());
-        if (dto.getAge() != null) profile.setAge(dto.getAge());
-        if (dto.getBirthdate() != null) profile.setBirthdate(dto.getBirthdate());
-        if (dto.getProfileImgUrl() != null) profile.setProfileImgUrl(dto.getProfileImgUrl());
-
-        UserProfile updated = userProfileRepository.save(profile);
+        UserProfileDTO updated = patch(profileId, ProfilePatch.ofNonNull(dto), ifMatch);
         logger.info("UC3: Profile {} updated successfully by {}", profileId, currentUser.getEmail());
 
-        return userProfileMapper.toDTO(updated);
+        return updated;
+    }
+
+    // ---- UC3: Admin oder Owner ändert einzelne Felder eines Profils (Security im Controller) ----
+    @Override
+    public UserProfileDTO patchProfile(UUID profileId, ProfilePatch patch, String ifMatch, User currentUser) {
+        logger.info("UC3: User {} patching profileId={} with data={}", currentUser.getEmail(), profileId, patch);
+
+        UserProfileDTO updated = patch(profileId, patch, ifMatch);
+        logger.info("UC3: Profile {} patched successfully by {}", profileId, currentUser.getEmail());
+
+        return updated;
     }
 
     // ---- UC3: Admin oder Owner löscht Profil (Security im Controller) ----
+    // Ein DELETE über die Profil-ID, ohne das Profil vorher zu laden
     @Override
     public void deleteProfile(UUID profileId, User currentUser) {
         logger.info("UC3: User {} deleting profileId={}", currentUser.getEmail(), profileId);
 
-        UserProfile profile = userProfileRepository.findById(profileId)
-                .orElseThrow(() -> new RuntimeException(PROFILE_NOT_FOUND));
+        if (userProfileRepository.deleteProfileById(profileId) == 0) {
+            logger.warn("UC3: Profile {} not found during deletion", profileId);
+            throw new NoSuchElementException(PROFILE_NOT_FOUND);
+        }
 
-        userProfileRepository.delete(profile);
+        profileOwnershipIndex.remove(profileId);
+        profileSearchIndex.delete(profileId);
+        profileCache.invalidate(profileId);
+        loadedEntityRegistry.evict(UserProfile.class, profileId);
         logger.info("UC3: Profile {} deleted successfully by {}", profileId, currentUser.getEmail());
     }
 
+    // ---- UC3: Admin ändert viele Profile auf einmal (Security im Controller) ----
+    // Ohne umschliessende Transaktion, jeder Chunk wird einzeln committet
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserProfileBulkResultDTO bulkUpdateProfiles(UserProfileBulkDTO.UpdateDTO dto, User currentUser) {
+        logger.info("UC3: User {} bulk updating profiles: ids={}, search={}, address={}, minAge={}, maxAge={}",
+                currentUser.getEmail(), dto.getIds() == null ? null : dto.getIds().size(), dto.getSearch(),
+                dto.getAddress(), dto.getMinAge(), dto.getMaxAge());
+
+        UserProfileBulkDTO.Changes set = dto.getSet();
+        UserProfileBulkResultDTO result = profileBulkOperations.update(dto.getIds(), filterOf(dto),
+                new ProfileChanges(set.getAddress(), set.getBirthdate(), set.getProfileImgUrl(), set.getAge()));
+
+        logger.info("UC3: Bulk update by {} changed {} profiles in {} chunks ({} ms)", currentUser.getEmail(),
+                result.getAffected(), result.getChunks().size(), result.getDurationMillis());
+        return result;
+    }
+
+    // ---- UC3: Admin löscht viele Profile auf einmal (Security im Controller) ----
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserProfileBulkResultDTO bulkDeleteProfiles(UserProfileBulkDTO dto, User currentUser) {
+        logger.info("UC3: User {} bulk deleting profiles: ids={}, search={}, address={}, minAge={}, maxAge={}",
+                currentUser.getEmail(), dto.getIds() == null ? null : dto.getIds().size(), dto.getSearch(),
+                dto.getAddress(), dto.getMinAge(), dto.getMaxAge());
+
+        UserProfileBulkResultDTO result = profileBulkOperations.delete(dto.getIds(), filterOf(dto));
+
+        logger.info("UC3: Bulk delete by {} removed {} profiles in {} chunks ({} ms)", currentUser.getEmail(),
+                result.getAffected(), result.getChunks().size(), result.getDurationMillis());
+        return result;
+    }
+
+    private static ProfileFilter filterOf(UserProfileBulkDTO dto) {
+        return ProfileFilter.of(dto.getSearch(), dto.getAddress(), dto.getMinAge(), dto.getMaxAge());
+    }
+
     // ---- UC4: Admin sucht, filtert und sortiert Profile (Security im Controller) ----
     @Override
     public Page<UserProfileDTO> searchProfiles(String searchTerm, String address,
@@ -171,21 +318,12 @@ public class UserProfileServiceImpl implements UserProfileService {
         logger.info("UC4: User {} searching profiles with filters: search={}, address={}, minAge={}, maxAge={}",
                 currentUser.getEmail(), searchTerm, address, minAge, maxAge);
 
-        Page<UserProfile> profiles;
-
-        if ((searchTerm != null && !searchTerm.isBlank()) ||
-                (address != null && !address.isBlank()) ||
-                minAge != null || maxAge != null) {
-
-            // Verwende Repository-Methoden je nach verfügbaren Filtern
-            if (searchTerm != null && !searchTerm.isBlank()) {
-                profiles = userProfileRepository.searchProfiles(searchTerm, pageable);
-            } else {
-                profiles = userProfileRepository.findProfilesWithFilters(address, minAge, maxAge, pageable);
-            }
-        } else {
-            profiles = userProfileRepository.findAll(pageable);
-        }
+        // Alle gesetzten Filter gelten gemeinsam, auch zusammen mit dem Suchbegriff
+        ProfileFilter filter = ProfileFilter.of(searchTerm, address, minAge, maxAge);
+        Page<UserProfile> profiles = (filter.searchPattern() != null
+                ? searchInIndex(searchTerm, address, minAge, maxAge, pageable)
+                : Optional.<Page<UserProfile>>empty())
+                .orElseGet(() -> userProfileRepository.findProfiles(filter, pageable));
 
         logger.info("UC4: Search completed by {} - Found {} profiles out of {} total",
                 currentUser.getEmail(), profiles.getNumberOfElements(), profiles.getTotalElements());
@@ -198,7 +336,7 @@ public class UserProfileServiceImpl implements UserProfileService {
     public Page<UserProfileDTO> getAllProfiles(Pageable pageable, User currentUser) {
         logger.info("UC4: User {} retrieving all profiles", currentUser.getEmail());
 
-        Page<UserProfile> profiles = userProfileRepository.findAll(pageable);
+        Page<UserProfile> profiles = userProfileRepository.findProfiles(ProfileFilter.none(), pageable);
 
         logger.info("UC4: Retrieved {} profiles out of {} total for admin {}",
                 profiles.getNumberOfElements(), profiles.getTotalElements(), currentUser.getEmail());
@@ -206,6 +344,192 @@ public class UserProfileServiceImpl implements UserProfileService {
         return profiles.map(userProfileMapper::toDTO);
     }
 
+    // ---- UC4: Admin blättert per Cursor durch Liste oder Suche (Security im Controller) ----
+    @Override
+    @Transactional(readOnly = true)
+    public UserProfileSliceDTO scrollProfiles(String searchTerm, String address, Integer minAge, Integer maxAge,
+                                              String cursor, Sort sort, int size, User currentUser) {
+        ProfileCursor after = cursor == null || cursor.isBlank() ? null : ProfileCursor.decode(cursor);
+        // Die Sortierung einer Folgeseite steht im Cursor
+        Sort.Order order = after != null ? after.order() : ProfileCursor.order(sort);
+        int limit = Math.min(Math.max(size, 1), MAX_SLICE_SIZE);
+        ProfileFilter filter = ProfileFilter.of(searchTerm, address, minAge, maxAge);
+        logger.info("UC4: User {} scrolling profiles with search={}, address={}, minAge={}, maxAge={}, order={}, "
+                + "cursor={}", currentUser.getEmail(), searchTerm, address, minAge, maxAge, order, after != null);
+
+        // Ein Profil mehr laden, um zu wissen, ob eine weitere Seite folgt
+        List<UserProfile> profiles = userProfileRepository.findProfilesAfter(filter, after, order, limit + 1);
+        boolean hasNext = profiles.size() > limit;
+        List<UserProfile> content = hasNext ? profiles.subList(0, limit) : profiles;
+        String nextCursor = hasNext ? ProfileCursor.after(content.get(limit - 1), order).encode() : null;
+
+        return new UserProfileSliceDTO(content.stream().map(userProfileMapper::toDTO).toList(), content.size(),
+                hasNext, nextCursor);
+    }
+
+    // ---- UC4: Admin exportiert alle Profile (Security im Controller) ----
+    // Die Zeilen gehen einzeln vom Datenbank-Cursor in den Stream, der Heap bleibt unabhängig von der Anzahl flach
+    @Override
+    @Transactional(readOnly = true)
+    public long exportProfiles(ProfileExportFormat format, OutputStream out, User currentUser) throws IOException {
+        logger.info("UC4: User {} exporting all profiles as {}", currentUser.getEmail(), format);
+        long started = System.nanoTime();
+
+        long count;
+        try (ProfileExportWriter writer = ProfileExportWriter.open(format, out, objectMapper)) {
+            count = userProfileRepository.forEachExportRow(writer);
+        } catch (UncheckedIOException e) {
+            logger.warn("UC4: Export for {} aborted: {}", currentUser.getEmail(), e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        logger.info("UC4: Exported {} profiles for {} in {} ms", count, currentUser.getEmail(),
+                (System.nanoTime() - started) / 1_000_000);
+        return count;
+    }
+
+    // ---- UC3: Admin importiert Profile (und optional User) in Chunks (Security im Controller) ----
+    // Ohne umschliessende Transaktion, jeder Chunk wird einzeln committet
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ProfileImportResult importProfiles(ProfileExportFormat format, InputStream in, User currentUser)
+            throws IOException {
+        logger.info("UC3: User {} importing profiles as {}", currentUser.getEmail(), format);
+
+        ProfileImportResult result = profileImporter.importProfiles(format, in);
+
+        logger.info("UC3: Import by {} finished - {} rows, {} profiles and {} users created, {} failed in {} ms",
+                currentUser.getEmail(), result.rows(), result.imported(), result.usersCreated(), result.failed(),
+                result.durationMillis());
+        return result;
+    }
+
+    // Der In-Memory-Index liefert die IDs der Seite, geladen werden nur diese Profile per Primärschlüssel.
+    // Fehlt eines davon in der Datenbank (Löschung noch nicht im Index nachgeführt, Import, Massenlöschung),
+    // stimmen Seite und Anzahl des Index nicht mehr; dann beantwortet die Datenbank die Suche.
+    private Optional<Page<UserProfile>> searchInIndex(String searchTerm, String address, Integer minAge,
+                                                      Integer maxAge, Pageable pageable) {
+        return profileSearchIndex.search(searchTerm, address, minAge, maxAge, pageable)
+                .flatMap(ids -> {
+                    Map<UUID, UserProfile> profiles = userProfileRepository.findAllWithUserByIdIn(ids.getContent()).stream()
+                            .collect(Collectors.toMap(UserProfile::getId, Function.identity()));
+                    if (profiles.size() != ids.getNumberOfElements()) {
+                        logger.info("UC4: Search index is behind the database, searching the database instead");
+                        return Optional.empty();
+                    }
+                    return Optional.of(ids.map(profiles::get));
+                });
+    }
+
+    private UserProfileDTO patchOwn(ProfilePatch patch, String ifMatch, User currentUser) {
+        Supplier<UserProfileDTO> load = () -> userProfileMapper.toDTO(
+                userProfileRepository.findByUserId(currentUser.getId()).orElseThrow(() -> {
+                    logger.warn("UC2: Profile not found for {} during update", currentUser.getEmail());
+                    return new RuntimeException(PROFILE_NOT_FOUND);
+                }));
+        return applyPatch(patch, ifMatch, () -> profileCache.getByUserId(currentUser.getId(), load), load);
+    }
+
+    private UserProfileDTO patch(UUID profileId, ProfilePatch patch, String ifMatch) {
+        Supplier<UserProfileDTO> load = () -> userProfileMapper.toDTO(findProfile(profileId));
+        UserProfileDTO updated = applyPatch(patch, ifMatch, () -> profileCache.get(profileId, load), load);
+        // Die geladene Entity entspricht nicht mehr der Datenbank
+        loadedEntityRegistry.evict(UserProfile.class, profileId);
+        return updated;
+    }
+
+    /**
+     * Ändert die Felder des Patches mit einem einzigen UPDATE, bedingt auf die bekannte Version, statt das Profil
+     * zu laden, zu kopieren und per Dirty Checking zu speichern. Die Antwort wird aus dem bekannten Stand und dem
+     * Patch zusammengesetzt, ohne erneutes Lesen.
+     *
+     * Ausgangsstand ist das DTO aus dem Profil-Cache. Passt dessen Version nicht zu If-Match oder trifft das UPDATE
+     * keine Zeile, war es veraltet oder das Profil wurde gleichzeitig geändert; dann wird einmal mit dem Stand aus
+     * der Datenbank wiederholt.
+     */
+    private UserProfileDTO applyPatch(ProfilePatch patch, String ifMatch, Supplier<UserProfileDTO> cached,
+                                      Supplier<UserProfileDTO> load) {
+        UserProfileDTO current = cached.get();
+        if (ifMatch == null || ProfileETag.of(current).matchesIfMatch(ifMatch)) {
+            Optional<UserProfileDTO> updated = tryPatch(current, patch);
+            if (updated.isPresent()) {
+                return updated.get();
+            }
+        }
+
+        current = load.get();
+        checkIfMatch(ProfileETag.of(current), ifMatch);
+        UUID profileId = current.getId();
+        return tryPatch(current, patch).orElseThrow(() -> {
+            logger.warn("Profile {} was modified concurrently during update", profileId);
+            return new ObjectOptimisticLockingFailureException(UserProfile.class, profileId);
+        });
+    }
+
+    private Optional<UserProfileDTO> tryPatch(UserProfileDTO current, ProfilePatch patch) {
+        UserProfileDTO.CreateUpdateDTO merged = patch.applyTo(current);
+        validate(merged, patch);
+        if (patch.isEmpty()) {
+            return Optional.of(current);
+        }
+
+        UserDTO user = current.getUser();
+        // Die Adresse ist Teil des Suchtexts, den das UPDATE ohne Entity-Callbacks nicht neu berechnet
+        String searchText = patch.changes(ProfilePatch.Field.ADDRESS) ? UserProfileSearch.searchText(
+                user.getFirstName(), user.getLastName(), user.getEmail(), merged.getAddress()) : null;
+        if (userProfileRepository.patchProfile(current.getId(), current.getVersion(), patch, searchText) == 0) {
+            return Optional.empty();
+        }
+
+        UserProfileDTO updated = new UserProfileDTO(current.getId(), user, merged.getAddress(),
+                merged.getBirthdate(), merged.getProfileImgUrl(), merged.getAge())
+                .setVersion(current.getVersion() + 1);
+        profileSearchIndex.update(new ProfileSearchDocument(updated.getId(), user.getId(), user.getFirstName(),
+                user.getLastName(), user.getEmail(), updated.getAddress(), updated.getAge(), updated.getBirthdate()));
+        profileCache.invalidate(updated.getId());
+        return Optional.of(updated);
+    }
+
+    // Dieselben Regeln wie beim PUT, aber nur für die gelieferten Felder; das Alter muss zum Geburtsdatum passen,
+    // sobald eines der beiden geändert wird
+    private void validate(UserProfileDTO.CreateUpdateDTO merged, ProfilePatch patch) {
+        Set<ConstraintViolation<UserProfileDTO.CreateUpdateDTO>> violations = new HashSet<>();
+        patch.fields().forEach(field -> violations.addAll(validator.validateProperty(merged, field.getProperty())));
+        if (patch.changes(ProfilePatch.Field.BIRTHDATE) || patch.changes(ProfilePatch.Field.AGE)) {
+            violations.addAll(validator.validateProperty(merged, "ageConsistent"));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    // Business Rule: Mit If-Match nur ändern, wenn der Client die aktuelle Version kennt (kein Lost Update)
+    private static void checkIfMatch(ProfileETag current, String ifMatch) {
+        if (ifMatch != null && !current.matchesIfMatch(ifMatch)) {
+            logger.warn("Profile {} was modified concurrently: If-Match {} does not match version {}",
+                    current.profileId(), ifMatch, current.version());
+            throw new ProfileVersionMismatchException("Profile was modified, reload it and retry");
+        }
+    }
+
+    private int insertProfile(UserProfile profile) {
+        try {
+            return userProfileRepository.insertProfile(profile);
+        } catch (DataIntegrityViolationException e) {
+            // Datenbanken, die ON CONFLICT bei gleichzeitigen Inserts nicht abfangen, melden den Constraint direkt
+            logger.warn("UC1: Profile creation failed → User {} already has a profile ({})",
+                    profile.getUser().getEmail(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            throw new ProfileAlreadyExistsException("User already has a profile");
+        }
+    }
+
+    // Verwendet das bereits von der Berechtigungsprüfung geladene Profil, falls vorhanden
+    private UserProfile findProfile(UUID profileId) {
+        return loadedEntityRegistry.find(UserProfile.class, profileId)
+                .or(() -> userProfileRepository.findById(profileId))
+                .orElseThrow(() -> new RuntimeException(PROFILE_NOT_FOUND));
+    }
+
     // ---- Helper-Methoden für zusätzliche Business-Logik ----
     @Override
     public boolean existsProfileForUser(User user) {
@@ -216,9 +540,7 @@ public class UserProfileServiceImpl implements UserProfileService {
     public UserProfileDTO getProfileByUserId(UUID userId, User currentUser) {
         logger.info("UC3: User {} retrieving profile for userId={}", currentUser.getEmail(), userId);
 
-        UserProfile profile = userProfileRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException(PROFILE_NOT_FOUND));
-
-        return userProfileMapper.toDTO(profile);
+        return profileCache.getByUserId(userId, () -> userProfileMapper.toDTO(
+                userProfileRepository.findByUserId(userId).orElseThrow(() -> new RuntimeException(PROFILE_NOT_FOUND))));
     }
 }
\ No newline at end of file
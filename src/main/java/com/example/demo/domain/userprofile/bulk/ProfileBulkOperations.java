@@ -0,0 +1,150 @@
+package com.example.demo.domain.userprofile.bulk;
+
+import com.example.demo.domain.userprofile.ProfileChanges;
+import com.example.demo.domain.userprofile.ProfileFilter;
+import com.example.demo.domain.userprofile.ProfileOwnershipIndex;
+import com.example.demo.domain.userprofile.UserProfileRepository;
+import com.example.demo.domain.userprofile.cache.ProfileCache;
+import com.example.demo.domain.userprofile.dto.UserProfileBulkResultDTO;
+import com.example.demo.domain.userprofile.search.ProfileSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * ProfileBulkOperations - Massen-Update und -Delete von Profilen als mengenbasierte SQL-Statements
+ *
+ * Die Profile werden in Chunks von profile-bulk.chunk-size IDs bearbeitet, jeder Chunk mit einem einzigen
+ * UPDATE bzw. DELETE ("WHERE id IN (...)" plus Filter) in einer eigenen Transaktion. Es werden keine Entities
+ * geladen. Mit Filter statt IDs werden die IDs des nächsten Chunks per Keyset (aufsteigend nach ID) gelesen,
+ * so bleiben Transaktionen und IN-Listen unabhängig von der Gesamtmenge klein.
+ *
+ * Suchtext, Besitzer- und Suchindex sowie der Profil-Cache werden pro Chunk nachgeführt.
+ */
+@Component
+public class ProfileBulkOperations {
+
+    private final UserProfileRepository userProfileRepository;
+    private final ProfileOwnershipIndex profileOwnershipIndex;
+    private final ProfileSearchIndex profileSearchIndex;
+    private final ProfileCache profileCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProfileBulkOperations(UserProfileRepository userProfileRepository,
+                                 ProfileOwnershipIndex profileOwnershipIndex, ProfileSearchIndex profileSearchIndex,
+                                 ProfileCache profileCache, PlatformTransactionManager transactionManager,
+                                 ProfileBulkProperties properties) {
+        this.userProfileRepository = userProfileRepository;
+        this.profileOwnershipIndex = profileOwnershipIndex;
+        this.profileSearchIndex = profileSearchIndex;
+        this.profileCache = profileCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = properties.getChunkSize();
+    }
+
+    /**
+     * Setzt die Felder von {@code changes} bei allen ausgewählten Profilen
+     *
+     * @param ids ausgewählte Profil-IDs oder null für alle, die dem Filter entsprechen
+     */
+    public UserProfileBulkResultDTO update(Collection<UUID> ids, ProfileFilter filter, ProfileChanges changes) {
+        return run(ids, filter, chunk -> {
+            int affected = userProfileRepository.updateProfiles(chunk, filter, changes);
+            // Die Adresse ist Teil des Suchtexts, den das UPDATE ohne Entity-Callbacks nicht neu berechnet
+            if (changes.address() != null && affected > 0) {
+                userProfileRepository.refreshSearchTextOfProfiles(chunk);
+            }
+            profileSearchIndex.refreshAll(chunk);
+            profileCache.invalidateAll(chunk);
+            return affected;
+        });
+    }
+
+    /**
+     * Löscht alle ausgewählten Profile
+     *
+     * @param ids ausgewählte Profil-IDs oder null für alle, die dem Filter entsprechen
+     */
+    public UserProfileBulkResultDTO delete(Collection<UUID> ids, ProfileFilter filter) {
+        return run(ids, filter, chunk -> {
+            int affected = userProfileRepository.deleteProfiles(chunk, filter);
+            chunk.forEach(profileOwnershipIndex::remove);
+            profileSearchIndex.refreshAll(chunk);
+            profileCache.invalidateAll(chunk);
+            return affected;
+        });
+    }
+
+    private UserProfileBulkResultDTO run(Collection<UUID> ids, ProfileFilter filter, ChunkAction action) {
+        long started = System.nanoTime();
+        List<UserProfileBulkResultDTO.Chunk> chunks = new ArrayList<>();
+        long affected = 0;
+
+        if (ids != null) {
+            List<UUID> distinct = List.copyOf(new LinkedHashSet<>(ids));
+            for (int from = 0; from < distinct.size(); from += chunkSize) {
+                List<UUID> chunk = distinct.subList(from, Math.min(from + chunkSize, distinct.size()));
+                UserProfileBulkResultDTO.Chunk result = execute(chunks.size(), () -> chunk, action);
+                chunks.add(result);
+                affected += result.getAffected();
+            }
+        } else {
+            UUID[] after = {null};
+            while (true) {
+                UserProfileBulkResultDTO.Chunk result = execute(chunks.size(), () -> {
+                    List<UUID> chunk = userProfileRepository.findProfileIdsAfter(filter, after[0], chunkSize);
+                    after[0] = chunk.isEmpty() ? null : chunk.get(chunk.size() - 1);
+                    return chunk;
+                }, action);
+                if (result.getSelected() == 0) {
+                    break;
+                }
+                chunks.add(result);
+                affected += result.getAffected();
+                if (result.getSelected() < chunkSize) {
+                    break;
+                }
+            }
+        }
+        return new UserProfileBulkResultDTO(affected, chunks, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private UserProfileBulkResultDTO.Chunk execute(int index, ChunkSelection selection, ChunkAction action) {
+        long started = System.nanoTime();
+        try {
+            UserProfileBulkResultDTO.Chunk result = transactionTemplate.execute(status -> {
+                List<UUID> chunk = selection.select();
+                int affected = chunk.isEmpty() ? 0 : action.apply(chunk);
+                return new UserProfileBulkResultDTO.Chunk(index, chunk.size(), affected, 0);
+            });
+            // Inklusive Commit
+            result.setDurationMillis((System.nanoTime() - started) / 1_000_000);
+            return result;
+        } finally {
+            // Mit Open-in-View könnte der Persistence Context des Requests sonst veraltete Profile enthalten
+            entityManager.clear();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkSelection {
+        List<UUID> select();
+    }
+
+    @FunctionalInterface
+    private interface ChunkAction {
+        int apply(List<UUID> chunk);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.domain.userprofile.bulk;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("profile-bulk")
+@Getter
+@Setter
+public class ProfileBulkProperties {
+
+    private int chunkSize = 1000;
+
+}
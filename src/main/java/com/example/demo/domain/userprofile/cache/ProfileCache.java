@@ -0,0 +1,178 @@
+package com.example.demo.domain.userprofile.cache;
+
+import com.example.demo.domain.userprofile.dto.UserProfileDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * ProfileCache - Read-Through-Cache für Profil-DTOs, nach Profil-ID und zusätzlich nach User-ID
+ *
+ * Einträge werden nach Grösse und Zeit verdrängt. Schreibende Operationen invalidieren nach dem Commit; Lesende,
+ * die während einer Invalidierung geladen haben, legen ihr Ergebnis nicht ab (sonst könnte ein vor dem Commit
+ * gelesener Stand bis zum Ablauf im Cache bleiben).
+ *
+ * Metriken: {@code cache.*} mit dem Tag {@code cache=profileCache}, dazu {@code profile.cache.hit.ratio} und die
+ * Ladezeit bei Fehltreffern als Timer {@code profile.cache.load}.
+ */
+@Component
+public class ProfileCache {
+
+    private static final String NAME = "profileCache";
+
+    private final boolean enabled;
+    private final Cache<UUID, ProfileSnapshot> cache;
+    private final ConcurrentStatsCounter stats = new ConcurrentStatsCounter();
+    private final Map<UUID, UUID> profileIdByUserId = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Timer loadTimer;
+
+    public ProfileCache(ProfileCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(Duration.ofMillis(properties.getExpireAfterWriteMillis()))
+                // Synchron, damit der User-Index nie auf verdrängte Einträge zeigt
+                .executor(Runnable::run)
+                .removalListener((UUID profileId, ProfileSnapshot snapshot, RemovalCause cause) -> {
+                    if (snapshot != null && snapshot.userId() != null && cause != RemovalCause.REPLACED) {
+                        profileIdByUserId.remove(snapshot.userId(), profileId);
+                    }
+                })
+                .recordStats(() -> stats)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+        Gauge.builder("profile.cache.hit.ratio", this, profileCache -> profileCache.stats().hitRate())
+                .description("Share of profile reads answered from the cache")
+                .register(meterRegistry);
+        this.loadTimer = Timer.builder("profile.cache.load")
+                .description("Time to load and map a profile on a cache miss")
+                .register(meterRegistry);
+    }
+
+    public UserProfileDTO get(UUID profileId, Supplier<UserProfileDTO> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        ProfileSnapshot cached = cache.getIfPresent(profileId);
+        return cached != null ? cached.toDTO() : load(loader);
+    }
+
+    public UserProfileDTO getByUserId(UUID userId, Supplier<UserProfileDTO> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        UUID profileId = profileIdByUserId.get(userId);
+        if (profileId == null) {
+            stats.recordMisses(1);
+            return load(loader);
+        }
+        ProfileSnapshot cached = cache.getIfPresent(profileId);
+        return cached != null ? cached.toDTO() : load(loader);
+    }
+
+    /**
+     * Ob das Profil im Cache liegt, ohne die Trefferstatistik zu beeinflussen
+     */
+    public boolean contains(UUID profileId) {
+        return enabled && cache.asMap().containsKey(profileId);
+    }
+
+    private UserProfileDTO load(Supplier<UserProfileDTO> loader) {
+        long generation = invalidations.get();
+        long started = System.nanoTime();
+        UserProfileDTO loaded = loader.get();
+        long elapsed = System.nanoTime() - started;
+        loadTimer.record(Duration.ofNanos(elapsed));
+        stats.recordLoadSuccess(elapsed);
+
+        ProfileSnapshot snapshot = ProfileSnapshot.of(loaded);
+        // Atomar gegenüber remove() derselben ID: Entweder sieht diese Prüfung die Invalidierung, oder die
+        // Invalidierung entfernt den Eintrag danach
+        cache.asMap().compute(snapshot.id(),
+                (id, current) -> invalidations.get() == generation ? snapshot : current);
+        if (snapshot.userId() != null) {
+            profileIdByUserId.put(snapshot.userId(), snapshot.id());
+        }
+        return snapshot.toDTO();
+    }
+
+    /**
+     * Entfernt das Profil nach dem Commit der laufenden Transaktion (sofort, wenn keine läuft)
+     */
+    public void invalidate(UUID profileId) {
+        invalidateAll(List.of(profileId));
+    }
+
+    public void invalidateAll(Collection<UUID> profileIds) {
+        if (enabled && !profileIds.isEmpty()) {
+            List<UUID> ids = List.copyOf(profileIds);
+            afterCommit(() -> {
+                invalidations.incrementAndGet();
+                ids.forEach(cache.asMap()::remove);
+            });
+        }
+    }
+
+    /**
+     * Entfernt das Profil eines Users (nach Änderungen an Name, Email oder Rollen)
+     */
+    public void invalidateUser(UUID userId) {
+        if (enabled) {
+            afterCommit(() -> {
+                invalidations.incrementAndGet();
+                UUID profileId = profileIdByUserId.remove(userId);
+                if (profileId != null) {
+                    cache.asMap().remove(profileId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Leert den Cache (nach Änderungen an Rollen, die in vielen Profilen enthalten sind)
+     */
+    public void invalidateAll() {
+        if (enabled) {
+            afterCommit(() -> {
+                invalidations.incrementAndGet();
+                cache.invalidateAll();
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
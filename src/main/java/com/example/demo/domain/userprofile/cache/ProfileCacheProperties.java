@@ -0,0 +1,22 @@
+package com.example.demo.domain.userprofile.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("profile-cache")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ProfileCacheProperties {
+
+    private boolean enabled = true;
+    private long maximumSize = 10_000;
+    private long expireAfterWriteMillis = 300_000;
+
+}
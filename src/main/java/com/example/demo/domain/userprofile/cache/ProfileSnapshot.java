@@ -0,0 +1,73 @@
+package com.example.demo.domain.userprofile.cache;
+
+import com.example.demo.domain.authority.dto.AuthorityDTO;
+import com.example.demo.domain.role.dto.RoleDTO;
+import com.example.demo.domain.user.dto.UserDTO;
+import com.example.demo.domain.userprofile.dto.UserProfileDTO;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * ProfileSnapshot - Unveränderliche Kopie eines {@link UserProfileDTO} samt User, Rollen und Authorities
+ *
+ * Der Cache gibt bei jedem Treffer ein neues DTO heraus, Änderungen eines Aufrufers landen so nie im Cache.
+ */
+public record ProfileSnapshot(UUID id, long version, String address, LocalDate birthdate, String profileImgUrl,
+                              Integer age, UserEntry user) {
+
+    public record UserEntry(UUID id, String firstName, String lastName, String email, List<RoleEntry> roles) {
+    }
+
+    public record RoleEntry(UUID id, String name, List<AuthorityEntry> authorities) {
+    }
+
+    public record AuthorityEntry(UUID id, String name) {
+    }
+
+    public static ProfileSnapshot of(UserProfileDTO dto) {
+        return new ProfileSnapshot(dto.getId(), dto.getVersion(), dto.getAddress(), dto.getBirthdate(),
+                dto.getProfileImgUrl(), dto.getAge(), dto.getUser() == null ? null : toEntry(dto.getUser()));
+    }
+
+    private static UserEntry toEntry(UserDTO user) {
+        List<RoleEntry> roles = user.getRoles() == null ? null : user.getRoles().stream()
+                .map(role -> new RoleEntry(role.getId(), role.getName(), role.getAuthorities() == null ? null
+                        : role.getAuthorities().stream()
+                        .map(authority -> new AuthorityEntry(authority.getId(), authority.getName()))
+                        .toList()))
+                .toList();
+        return new UserEntry(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(), roles);
+    }
+
+    public UUID userId() {
+        return user == null ? null : user.id();
+    }
+
+    public UserProfileDTO toDTO() {
+        UserProfileDTO dto = new UserProfileDTO(id, user == null ? null : toDTO(user), address, birthdate,
+                profileImgUrl, age);
+        return dto.setVersion(version);
+    }
+
+    private static UserDTO toDTO(UserEntry user) {
+        Set<RoleDTO> roles = null;
+        if (user.roles() != null) {
+            roles = new HashSet<>();
+            for (RoleEntry role : user.roles()) {
+                Set<AuthorityDTO> authorities = null;
+                if (role.authorities() != null) {
+                    authorities = new HashSet<>();
+                    for (AuthorityEntry authority : role.authorities()) {
+                        authorities.add(new AuthorityDTO(authority.id(), authority.name()));
+                    }
+                }
+                roles.add(new RoleDTO(role.id(), role.name(), authorities));
+            }
+        }
+        return new UserDTO(user.id(), user.firstName(), user.lastName(), user.email(), roles);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.domain.userprofile.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * UserProfileBulkDTO - Auswahl der Profile für Massenänderungen
+ *
+ * Profile werden über IDs und/oder die Filter der Admin-Suche ausgewählt; beides zusammen wirkt mit AND.
+ * Ohne IDs und Filter muss {@code all=true} gesetzt sein, damit nicht versehentlich alle Profile betroffen sind.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+public class UserProfileBulkDTO {
+
+    @Size(max = 100_000, message = "At most 100000 ids per request")
+    private List<@NotNull UUID> ids;
+
+    private String search;
+    private String address;
+    private Integer minAge;
+    private Integer maxAge;
+    private boolean all;
+
+    @JsonIgnore
+    @AssertTrue(message = "Select profiles by ids or filter, or set all=true")
+    public boolean isSelectionGiven() {
+        return all || ids != null || hasText(search) || hasText(address) || minAge != null || maxAge != null;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    /**
+     * Massen-Update: die Felder in {@code set} werden bei allen ausgewählten Profilen gesetzt
+     */
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class UpdateDTO extends UserProfileBulkDTO {
+
+        @Valid
+        @NotNull(message = "Changes are required")
+        private Changes set;
+    }
+
+    /**
+     * Zu setzende Felder, nicht gesetzte (null) bleiben unverändert. Es gelten die Regeln von
+     * {@link UserProfileDTO.CreateUpdateDTO}; Geburtsdatum und Alter nur zusammen, damit sie zueinander passen.
+     */
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class Changes {
+
+        @Pattern(regexp = ".*\\S.*", message = "Address must not be blank")
+        private String address;
+
+        @Past(message = "Birthdate must be in the past")
+        @JsonFormat(pattern = "yyyy-MM-dd")
+        private LocalDate birthdate;
+
+        @Size(max = 1024)
+        private String profileImgUrl;
+
+        @Min(value = 0, message = "Age must be >= 0")
+        @Max(value = 150, message = "Age must be <= 150")
+        private Integer age;
+
+        @JsonIgnore
+        @AssertTrue(message = "At least one field must be set")
+        public boolean isAnyFieldSet() {
+            return address != null || birthdate != null || profileImgUrl != null || age != null;
+        }
+
+        @JsonIgnore
+        @AssertTrue(message = "Birthdate and age must be set together and match")
+        public boolean isAgeConsistent() {
+            if (birthdate == null && age == null) return true;
+            if (birthdate == null || age == null) return false;
+            return Period.between(birthdate, LocalDate.now()).getYears() == age;
+        }
+    }
+}
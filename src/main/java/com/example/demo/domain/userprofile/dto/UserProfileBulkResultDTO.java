@@ -0,0 +1,37 @@
+package com.example.demo.domain.userprofile.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * UserProfileBulkResultDTO - Ergebnis einer Massenänderung
+ *
+ * affected ist die Summe der von den UPDATE/DELETE-Statements gemeldeten Zeilen, chunks enthält
+ * Anzahl und Dauer pro Chunk (eigene Transaktion).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class UserProfileBulkResultDTO {
+
+    private long affected;
+    private List<Chunk> chunks;
+    private long durationMillis;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Getter
+    @Setter
+    public static class Chunk {
+
+        private int index;
+        private int selected;
+        private int affected;
+        private long durationMillis;
+    }
+}
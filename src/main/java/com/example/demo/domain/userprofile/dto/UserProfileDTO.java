@@ -3,6 +3,7 @@ package com.example.demo.domain.userprofile.dto;
 import com.example.demo.core.generic.AbstractDTO;
 import com.example.demo.domain.user.dto.UserDTO;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -44,6 +45,10 @@ public class UserProfileDTO extends AbstractDTO {
     @Max(value = 150, message = "Age must be <= 150")
     private Integer age;
 
+    // Nur für den ETag-Header, nicht Teil des JSON
+    @JsonIgnore
+    private long version;
+
     public UserProfileDTO(UUID profileId, UserDTO user, String address, LocalDate birthdate, String profileImgUrl, Integer age) {
         super(profileId);
         this.user = user;
@@ -0,0 +1,25 @@
+package com.example.demo.domain.userprofile.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * UserProfileSliceDTO - Seite der Keyset-Pagination
+ *
+ * Enthält keine Gesamtanzahl. nextCursor ist null, wenn keine weiteren Profile folgen.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class UserProfileSliceDTO {
+
+    private List<UserProfileDTO> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,12 @@
+package com.example.demo.domain.userprofile.export;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Eine Zeile des Profil-Exports: Profil samt Feldern des Users.
+ * Wird per Konstruktor-Projektion direkt aus der Datenbank gelesen, ohne Entities, Rollen oder Authorities zu laden.
+ */
+public record ProfileExportRow(UUID profileId, UUID userId, String firstName, String lastName, String email,
+                               String address, LocalDate birthdate, Integer age, String profileImgUrl) {
+}
@@ -0,0 +1,142 @@
+package com.example.demo.domain.userprofile.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Schreibt Export-Zeilen einzeln in einen Stream, ohne sie zu sammeln.
+ *
+ * Gepuffert wird nur bis zur Puffergrösse, danach geht die Ausgabe direkt an den Client. Der Ziel-Stream wird
+ * bei {@link #close()} nur geleert, nicht geschlossen. Als {@link Consumer} wirft der Writer IOExceptions
+ * (z.B. bei abgebrochener Verbindung) als {@link UncheckedIOException}.
+ */
+public abstract class ProfileExportWriter implements Consumer<ProfileExportRow>, AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    public static ProfileExportWriter open(ProfileExportFormat format, OutputStream out, ObjectMapper objectMapper)
+            throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(out, objectMapper);
+            case CSV -> new CsvWriter(out);
+        };
+    }
+
+    @Override
+    public void accept(ProfileExportRow row) {
+        try {
+            write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract void write(ProfileExportRow row) throws IOException;
+
+    @Override
+    public abstract void close() throws IOException;
+
+    /**
+     * Ein JSON-Objekt pro Zeile, Datumswerte wie in der restlichen API
+     */
+    private static final class NdjsonWriter extends ProfileExportWriter {
+
+        private final JsonGenerator generator;
+        private final ObjectWriter rowWriter;
+
+        private NdjsonWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            // Zeilenumbruch statt Leerzeichen zwischen den Objekten
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+            // Nicht nach jeder Zeile bis zum Client flushen
+            this.rowWriter = objectMapper.writerFor(ProfileExportRow.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        protected void write(ProfileExportRow row) throws IOException {
+            rowWriter.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * CSV nach RFC 4180 mit Kopfzeile, leere Felder für null
+     */
+    private static final class CsvWriter extends ProfileExportWriter {
+
+        private static final String HEADER =
+                "profileId,userId,firstName,lastName,email,address,birthdate,age,profileImgUrl";
+
+        private final Writer writer;
+
+        private CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write(HEADER);
+            writer.write("\r\n");
+        }
+
+        @Override
+        protected void write(ProfileExportRow row) throws IOException {
+            field(row.profileId(), false);
+            field(row.userId(), true);
+            field(row.firstName(), true);
+            field(row.lastName(), true);
+            field(row.email(), true);
+            field(row.address(), true);
+            field(row.birthdate(), true);
+            field(row.age(), true);
+            field(row.profileImgUrl(), true);
+            writer.write("\r\n");
+        }
+
+        private void field(Object value, boolean separator) throws IOException {
+            if (separator) {
+                writer.write(',');
+            }
+            if (value == null) {
+                return;
+            }
+            String text = value.toString();
+            if (!needsQuoting(text)) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        private static boolean needsQuoting(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+}
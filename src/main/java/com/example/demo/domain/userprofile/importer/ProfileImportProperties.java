@@ -0,0 +1,17 @@
+package com.example.demo.domain.userprofile.importer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("profile-import")
+@Getter
+@Setter
+public class ProfileImportProperties {
+
+    private int chunkSize = 1000;
+    private int maxReportedErrors = 1000;
+
+}
@@ -0,0 +1,211 @@
+package com.example.demo.domain.userprofile.importer;
+
+import com.example.demo.domain.userprofile.export.ProfileExportFormat;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Liest Import-Zeilen einzeln aus einem Stream, im gleichen Format wie der Export ({@link ProfileExportFormat}).
+ * Eine Zeile, die sich nicht lesen lässt, wird als Fehler zurückgegeben und der Import läuft weiter.
+ */
+public abstract class ProfileImportReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Eine gelesene Zeile: entweder {@code row} oder {@code error} ist gesetzt
+     */
+    public record ParsedRow(long number, ProfileImportRow row, String error) {
+    }
+
+    protected final BufferedReader reader;
+    protected long number;
+
+    protected ProfileImportReader(InputStream in) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public static ProfileImportReader open(ProfileExportFormat format, InputStream in, ObjectMapper objectMapper)
+            throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonReader(in, objectMapper);
+            case CSV -> new CsvReader(in);
+        };
+    }
+
+    /**
+     * @return die nächste Datenzeile oder null am Ende des Streams
+     */
+    public abstract ParsedRow next() throws IOException;
+
+    private static final class NdjsonReader extends ProfileImportReader {
+
+        private final ObjectReader rowReader;
+
+        private NdjsonReader(InputStream in, ObjectMapper objectMapper) {
+            super(in);
+            this.rowReader = objectMapper.readerFor(ProfileImportRow.class);
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            number++;
+            try {
+                return new ParsedRow(number, rowReader.readValue(line), null);
+            } catch (JsonProcessingException e) {
+                return new ParsedRow(number, null, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * CSV nach RFC 4180 mit Kopfzeile; Felder in Anführungszeichen dürfen Kommas und Zeilenumbrüche enthalten
+     */
+    private static final class CsvReader extends ProfileImportReader {
+
+        private static final List<String> COLUMNS = List.of("userid", "email", "firstname", "lastname", "address",
+                "birthdate", "profileimgurl", "age");
+
+        private final Map<String, Integer> columnIndex = new HashMap<>();
+
+        private CsvReader(InputStream in) throws IOException {
+            super(in);
+            List<String> header = readRecord();
+            if (header == null) {
+                return;
+            }
+            // Byte Order Mark, wie ihn Excel schreibt
+            if (header.get(0).startsWith("\uFEFF")) {
+                header.set(0, header.get(0).substring(1));
+            }
+            for (int i = 0; i < header.size(); i++) {
+                String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+                if (COLUMNS.contains(column)) {
+                    columnIndex.putIfAbsent(column, i);
+                }
+            }
+            if (columnIndex.isEmpty()) {
+                throw new IllegalArgumentException("CSV header must contain at least one of " + COLUMNS);
+            }
+        }
+
+        @Override
+        public ParsedRow next() throws IOException {
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isEmpty());
+            number++;
+            try {
+                return new ParsedRow(number, new ProfileImportRow()
+                        .setUserId(uuid(value(record, "userid")))
+                        .setEmail(value(record, "email"))
+                        .setFirstName(value(record, "firstname"))
+                        .setLastName(value(record, "lastname"))
+                        .setAddress(value(record, "address"))
+                        .setBirthdate(date(value(record, "birthdate")))
+                        .setProfileImgUrl(value(record, "profileimgurl"))
+                        .setAge(integer(value(record, "age"))), null);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                return new ParsedRow(number, null, e.getMessage());
+            }
+        }
+
+        private String value(List<String> record, String column) {
+            Integer index = columnIndex.get(column);
+            if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+                return null;
+            }
+            return record.get(index);
+        }
+
+        private static UUID uuid(String value) {
+            try {
+                return value == null ? null : UUID.fromString(value.trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("userId: invalid UUID '" + value + "'");
+            }
+        }
+
+        private static LocalDate date(String value) {
+            try {
+                return value == null ? null : LocalDate.parse(value.trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("birthdate: expected yyyy-MM-dd but was '" + value + "'");
+            }
+        }
+
+        private static Integer integer(String value) {
+            try {
+                return value == null ? null : Integer.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("age: not a number '" + value + "'");
+            }
+        }
+
+        /**
+         * @return die Felder des nächsten Datensatzes oder null am Ende des Streams
+         */
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.domain.userprofile.importer;
+
+import java.util.List;
+
+/**
+ * Ergebnis eines Profil-Imports. Fehlerhafte Zeilen werden übersprungen und hier gemeldet,
+ * in {@code errors} höchstens bis zur konfigurierten Anzahl, gezählt werden alle.
+ *
+ * @param rows         gelesene Datenzeilen (ohne CSV-Kopfzeile und leere Zeilen)
+ * @param imported     angelegte Profile
+ * @param usersCreated dabei neu angelegte User
+ * @param failed       übersprungene Zeilen
+ */
+public record ProfileImportResult(long rows, long imported, long usersCreated, long failed, List<RowError> errors,
+                                  long durationMillis) {
+
+    /**
+     * @param row Nummer der Datenzeile, beginnend bei 1
+     */
+    public record RowError(long row, String message) {
+    }
+}
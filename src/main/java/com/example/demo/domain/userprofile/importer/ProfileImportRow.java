@@ -0,0 +1,59 @@
+package com.example.demo.domain.userprofile.importer;
+
+import com.example.demo.domain.userprofile.dto.UserProfileDTO;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Eine Zeile des Profil-Imports
+ *
+ * Das Profil gehört entweder einem bestehenden User ({@code userId}) oder dem User mit der angegebenen Email.
+ * Gibt es zur Email noch keinen User, wird er mit Vor- und Nachname angelegt. Die Profilfelder werden mit
+ * den Regeln von {@link UserProfileDTO.CreateUpdateDTO} validiert. Spalten bzw. Felder wie beim Export,
+ * unbekannte (z.B. profileId) werden ignoriert.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Accessors(chain = true)
+public class ProfileImportRow {
+
+    private UUID userId;
+
+    @Email
+    @Size(max = 255)
+    private String email;
+
+    @Size(max = 255)
+    private String firstName;
+
+    @Size(max = 255)
+    private String lastName;
+
+    private String address;
+    private LocalDate birthdate;
+    private String profileImgUrl;
+    private Integer age;
+
+    @AssertTrue(message = "Either userId or email is required")
+    public boolean isOwnerGiven() {
+        return userId != null || (email != null && !email.isBlank());
+    }
+
+    public UserProfileDTO.CreateUpdateDTO toCreateUpdateDTO() {
+        UserProfileDTO.CreateUpdateDTO dto = new UserProfileDTO.CreateUpdateDTO();
+        dto.setAddress(address);
+        dto.setBirthdate(birthdate);
+        dto.setProfileImgUrl(profileImgUrl);
+        dto.setAge(age);
+        return dto;
+    }
+}
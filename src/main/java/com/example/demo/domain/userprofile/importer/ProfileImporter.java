@@ -0,0 +1,265 @@
+package com.example.demo.domain.userprofile.importer;
+
+import com.example.demo.domain.role.Role;
+import com.example.demo.domain.user.User;
+import com.example.demo.domain.user.UserRepository;
+import com.example.demo.domain.userprofile.ProfileOwnershipIndex;
+import com.example.demo.domain.userprofile.UserProfile;
+import com.example.demo.domain.userprofile.UserProfileRepository;
+import com.example.demo.domain.userprofile.dto.UserProfileMapper;
+import com.example.demo.domain.userprofile.export.ProfileExportFormat;
+import com.example.demo.domain.userprofile.search.ProfileSearchDocument;
+import com.example.demo.domain.userprofile.search.ProfileSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ProfileImporter - Massenimport von Profilen (und optional Usern) aus NDJSON oder CSV
+ *
+ * Die Zeilen werden einzeln gelesen und validiert und in Chunks von {@code profile-import.chunk-size} Zeilen
+ * geschrieben, jeder Chunk in einer eigenen Transaktion. Pro Chunk werden bestehende User und Profile mit je
+ * einer Abfrage aufgelöst, die Inserts gehen per JDBC-Batching (hibernate.jdbc.batch_size, order_inserts) an
+ * die Datenbank. Fehlerhafte Zeilen werden gemeldet und übersprungen, der Rest des Imports läuft weiter.
+ *
+ * Neu angelegte User erhalten die Standardrolle, aber kein Passwort: BCrypt pro Zeile würde den Import auf
+ * wenige Zeilen pro Sekunde bremsen.
+ */
+@Component
+public class ProfileImporter {
+
+    private static final Logger logger = LogManager.getLogger(ProfileImporter.class);
+
+    private final UserRepository userRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final UserProfileMapper userProfileMapper;
+    private final ProfileOwnershipIndex profileOwnershipIndex;
+    private final ProfileSearchIndex profileSearchIndex;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ProfileImportProperties properties;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ProfileImporter(UserRepository userRepository, UserProfileRepository userProfileRepository,
+                           @Qualifier("userProfileMapperImpl") UserProfileMapper userProfileMapper,
+                           ProfileOwnershipIndex profileOwnershipIndex, ProfileSearchIndex profileSearchIndex,
+                           Validator validator, ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager, ProfileImportProperties properties) {
+        this.userRepository = userRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.userProfileMapper = userProfileMapper;
+        this.profileOwnershipIndex = profileOwnershipIndex;
+        this.profileSearchIndex = profileSearchIndex;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        if (properties.getChunkSize() < 1) {
+            throw new IllegalArgumentException("profile-import.chunk-size must be at least 1");
+        }
+    }
+
+    /**
+     * Importiert alle Zeilen des Streams. Darf nicht in einer laufenden Transaktion aufgerufen werden,
+     * sonst würden alle Chunks zusammen committet.
+     */
+    public ProfileImportResult importProfiles(ProfileExportFormat format, InputStream in) throws IOException {
+        long started = System.nanoTime();
+        Progress progress = new Progress(properties.getMaxReportedErrors());
+        ProfileImportReader reader = ProfileImportReader.open(format, in, objectMapper);
+
+        List<ProfileImportReader.ParsedRow> chunk = new ArrayList<>(properties.getChunkSize());
+        ProfileImportReader.ParsedRow parsed;
+        while ((parsed = reader.next()) != null) {
+            progress.rows++;
+            String error = parsed.error() != null ? parsed.error() : validate(parsed.row());
+            if (error != null) {
+                progress.fail(parsed.number(), error);
+                continue;
+            }
+            chunk.add(parsed);
+            if (chunk.size() == properties.getChunkSize()) {
+                importChunk(chunk, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, progress);
+        }
+        return progress.result(started);
+    }
+
+    private String validate(ProfileImportRow row) {
+        Set<String> messages = Stream.concat(validator.validate(row).stream(),
+                        validator.validate(row.toCreateUpdateDTO()).stream())
+                .map(ProfileImporter::message)
+                .collect(Collectors.toCollection(TreeSet::new));
+        return messages.isEmpty() ? null : String.join("; ", messages);
+    }
+
+    private static String message(ConstraintViolation<?> violation) {
+        String path = violation.getPropertyPath().toString();
+        return path.isEmpty() ? violation.getMessage() : path + ": " + violation.getMessage();
+    }
+
+    private void importChunk(List<ProfileImportReader.ParsedRow> chunk, Progress progress) {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> writeChunk(chunk));
+        } catch (DataAccessException | PersistenceException e) {
+            if (chunk.size() == 1) {
+                progress.fail(chunk.get(0).number(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            // Ein Konflikt (z.B. gleichzeitig angelegter User) verwirft den ganzen Chunk; zeilenweise wiederholen,
+            // damit nur die betroffene Zeile als Fehler gemeldet wird
+            logger.warn("Profile import: chunk of {} rows failed, retrying row by row: {}", chunk.size(),
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            chunk.forEach(row -> importChunk(List.of(row), progress));
+            return;
+        } finally {
+            // Mit Open-in-View teilen sich alle Chunks den Persistence Context des Requests, auch nach Fehlern
+            entityManager.clear();
+        }
+
+        result.errors.forEach(progress::fail);
+        progress.imported += result.documents.size();
+        progress.usersCreated += result.usersCreated;
+        result.documents.forEach(document -> profileOwnershipIndex.register(document.id(), document.userId()));
+        profileSearchIndex.putAll(result.documents);
+    }
+
+    private ChunkResult writeChunk(List<ProfileImportReader.ParsedRow> chunk) {
+        ChunkResult result = new ChunkResult();
+
+        // Bestehende User des Chunks mit je einer Abfrage auflösen
+        Set<UUID> userIds = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (ProfileImportReader.ParsedRow parsed : chunk) {
+            if (parsed.row().getUserId() != null) {
+                userIds.add(parsed.row().getUserId());
+            } else {
+                emails.add(parsed.row().getEmail());
+            }
+        }
+        Map<UUID, User> usersById = userIds.isEmpty() ? Map.of() : userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<String, User> usersByEmail = emails.isEmpty() ? new HashMap<>()
+                : userRepository.findAllByEmailIn(emails).stream()
+                .collect(Collectors.toMap(User::getEmail, Function.identity(), (a, b) -> a, HashMap::new));
+        Set<UUID> existingOwnerIds = Stream.concat(usersById.keySet().stream(),
+                usersByEmail.values().stream().map(User::getId)).collect(Collectors.toSet());
+        Set<UUID> ownersWithProfile = existingOwnerIds.isEmpty() ? Set.of()
+                : userProfileRepository.findUserIdsWithProfile(existingOwnerIds);
+
+        Role defaultRole = entityManager.getReference(Role.class, Role.DEFAULT_ROLE_ID);
+        Set<User> owners = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<User> newUsers = new ArrayList<>();
+        List<UserProfile> profiles = new ArrayList<>();
+        for (ProfileImportReader.ParsedRow parsed : chunk) {
+            ProfileImportRow row = parsed.row();
+            User user;
+            if (row.getUserId() != null) {
+                user = usersById.get(row.getUserId());
+                if (user == null) {
+                    result.errors.put(parsed.number(), "User " + row.getUserId() + " not found");
+                    continue;
+                }
+            } else {
+                user = usersByEmail.get(row.getEmail());
+                if (user == null) {
+                    user = new User().setEmail(row.getEmail())
+                            .setFirstName(row.getFirstName())
+                            .setLastName(row.getLastName())
+                            .setRoles(Set.of(defaultRole));
+                    usersByEmail.put(row.getEmail(), user);
+                    newUsers.add(user);
+                }
+            }
+            // Business Rule: Ein User kann nur ein Profil haben, auch innerhalb des Imports
+            if ((user.getId() != null && ownersWithProfile.contains(user.getId())) || !owners.add(user)) {
+                result.errors.put(parsed.number(), "User already has a profile");
+                continue;
+            }
+            profiles.add(userProfileMapper.toEntity(row.toCreateUpdateDTO()).setUser(user));
+        }
+
+        userRepository.saveAll(newUsers);
+        userProfileRepository.saveAll(profiles);
+        entityManager.flush();
+        // Der Commit muss die geschriebenen Entities nicht noch einmal auf Änderungen prüfen
+        entityManager.clear();
+
+        result.usersCreated = newUsers.size();
+        for (UserProfile profile : profiles) {
+            User user = profile.getUser();
+            result.documents.add(new ProfileSearchDocument(profile.getId(), user.getId(), user.getFirstName(),
+                    user.getLastName(), user.getEmail(), profile.getAddress(), profile.getAge(),
+                    profile.getBirthdate()));
+        }
+        return result;
+    }
+
+    private static final class ChunkResult {
+        private final Map<Long, String> errors = new HashMap<>();
+        private final List<ProfileSearchDocument> documents = new ArrayList<>();
+        private long usersCreated;
+    }
+
+    private static final class Progress {
+        private final int maxReportedErrors;
+        private final List<ProfileImportResult.RowError> errors = new ArrayList<>();
+        private long rows;
+        private long imported;
+        private long usersCreated;
+        private long failed;
+
+        private Progress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProfileImportResult.RowError(row, message));
+            }
+        }
+
+        private ProfileImportResult result(long started) {
+            errors.sort(Comparator.comparingLong(ProfileImportResult.RowError::row));
+            return new ProfileImportResult(rows, imported, usersCreated, failed, List.copyOf(errors),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+}
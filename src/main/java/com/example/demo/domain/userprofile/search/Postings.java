@@ -0,0 +1,60 @@
+package com.example.demo.domain.userprofile.search;
+
+import java.util.Arrays;
+
+/**
+ * Aufsteigend sortierte Dokumentnummern eines N-Gramms in einem wachsenden int-Array.
+ * Dokumentnummern werden nur angehängt, nie entfernt - gelöschte Dokumente filtert der Index.
+ */
+final class Postings {
+
+    private int[] docs = new int[4];
+    private int size;
+
+    void add(int doc) {
+        if (size > 0 && docs[size - 1] == doc) {
+            return;
+        }
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+        }
+        docs[size++] = doc;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Behält von {@code candidates[0..count)} nur die Dokumente, die auch in dieser Liste stehen.
+     * Beide Listen sind sortiert; in der längeren Liste wird exponentiell vorgesprungen.
+     *
+     * @return Anzahl der verbleibenden Kandidaten
+     */
+    int retainAll(int[] candidates, int count) {
+        int kept = 0;
+        int position = 0;
+        for (int i = 0; i < count && position < size; i++) {
+            int doc = candidates[i];
+            int step = 1;
+            int high = position;
+            while (high < size && docs[high] < doc) {
+                position = high;
+                high += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(docs, position, Math.min(high + 1, size), doc);
+            if (found >= 0) {
+                candidates[kept++] = doc;
+                position = found + 1;
+            } else {
+                position = -found - 1;
+            }
+        }
+        return kept;
+    }
+
+    int[] copy() {
+        return Arrays.copyOf(docs, size);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.domain.userprofile.search;
+
+import com.example.demo.domain.userprofile.UserProfileSearch;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Die Felder eines Profils, die der In-Memory-Suchindex zum Suchen, Filtern und Sortieren braucht.
+ * Wird per Konstruktor-Projektion direkt aus der Datenbank gelesen, ohne Entities zu laden.
+ */
+public record ProfileSearchDocument(UUID id, UUID userId, String firstName, String lastName, String email,
+                                    String address, Integer age, LocalDate birthdate) {
+
+    public String searchText() {
+        return UserProfileSearch.searchText(firstName, lastName, email, address);
+    }
+}
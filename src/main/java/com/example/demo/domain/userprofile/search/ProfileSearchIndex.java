@@ -0,0 +1,424 @@
+package com.example.demo.domain.userprofile.search;
+
+import com.example.demo.domain.userprofile.UserProfileRepository;
+import com.example.demo.domain.userprofile.UserProfileSearch;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * ProfileSearchIndex - optionaler In-Memory-Suchindex für die Admin-Suche (profile-search.in-memory-index)
+ *
+ * Invertierter Index über die N-Gramme des Suchtexts (Vorname, Nachname, Email, Adresse). Jedes Profil
+ * erhält eine fortlaufende Dokumentnummer, die Postings sind sortierte int-Arrays. Eine Suche schneidet
+ * die Postings aller N-Gramme des Begriffs, prüft die Kandidaten auf den ganzen Teilstring und wendet
+ * Filter, Sortierung und Pagination im Speicher an. Geliefert werden nur die Profil-IDs der Seite.
+ *
+ * Der Index wird nach dem Start aus einer Projektion aufgebaut und von UserProfileServiceImpl und
+ * UserServiceImpl nach dem Commit nachgeführt. Geänderte oder gelöschte Profile hinterlassen tote
+ * Dokumentnummern, die beim nächsten Neuaufbau verschwinden; überwiegen sie, wird neu aufgebaut.
+ *
+ * Solange der Index nicht bereit ist oder eine Sortierung nicht unterstützt, liefert search() nichts
+ * und der Service fragt die Datenbank.
+ */
+@Component
+public class ProfileSearchIndex {
+
+    private static final Logger logger = LogManager.getLogger(ProfileSearchIndex.class);
+
+    private static final Map<String, Comparator<ProfileSearchDocument>> SORT_KEYS = Map.of(
+            "id", Comparator.comparing(ProfileSearchDocument::id),
+            "address", keyComparator(ProfileSearchDocument::address),
+            "age", keyComparator(ProfileSearchDocument::age),
+            "birthdate", keyComparator(ProfileSearchDocument::birthdate),
+            "user.firstName", keyComparator(ProfileSearchDocument::firstName),
+            "user.lastName", keyComparator(ProfileSearchDocument::lastName),
+            "user.email", keyComparator(ProfileSearchDocument::email));
+
+    private final UserProfileRepository userProfileRepository;
+    private final boolean enabled;
+    private final int ngramLength;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Alle Felder unten nur unter dem Lock verwenden
+    private ProfileSearchDocument[] documents = new ProfileSearchDocument[0];
+    private String[] texts = new String[0];
+    private int documentCount;
+    private final Map<UUID, Integer> documentByProfileId = new HashMap<>();
+    private final Map<UUID, UUID> profileIdByUserId = new HashMap<>();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private volatile boolean ready;
+
+    public ProfileSearchIndex(UserProfileRepository userProfileRepository, ProfileSearchProperties properties) {
+        this.userProfileRepository = userProfileRepository;
+        this.enabled = properties.isInMemoryIndex();
+        this.ngramLength = properties.getNgramLength();
+        if (ngramLength < 1 || ngramLength > 4) {
+            throw new IllegalArgumentException("profile-search.ngram-length must be between 1 and 4");
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            long start = System.nanoTime();
+            rebuild(userProfileRepository.findAllSearchDocuments());
+            logger.info("Search index: indexed {} profiles in {} ms", documentByProfileId.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ersetzt den ganzen Inhalt des Index und macht ihn bereit
+     */
+    public void rebuild(List<ProfileSearchDocument> all) {
+        lock.writeLock().lock();
+        try {
+            documents = new ProfileSearchDocument[Math.max(16, all.size())];
+            texts = new String[documents.length];
+            documentCount = 0;
+            documentByProfileId.clear();
+            profileIdByUserId.clear();
+            postings.clear();
+            all.forEach(this::add);
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---- Nachführen, jeweils nach dem Commit der laufenden Transaktion ----
+
+    public void refresh(UUID profileId) {
+        if (enabled) {
+            afterCommit(() -> userProfileRepository.findSearchDocument(profileId)
+                    .ifPresentOrElse(this::put, () -> remove(profileId)));
+        }
+    }
+
+    public void refreshUser(UUID userId) {
+        if (enabled) {
+            afterCommit(() -> userProfileRepository.findSearchDocumentByUserId(userId).ifPresent(this::put));
+        }
+    }
+
+    /**
+     * Liest die angegebenen Profile nach dem Commit neu ein; nicht mehr vorhandene werden entfernt
+     * (nach Massenänderungen, die keine Entities laden)
+     */
+    public void refreshAll(Collection<UUID> profileIds) {
+        if (enabled && !profileIds.isEmpty()) {
+            List<UUID> ids = List.copyOf(profileIds);
+            afterCommit(() -> {
+                List<ProfileSearchDocument> found = userProfileRepository.findSearchDocuments(ids);
+                Set<UUID> missing = new HashSet<>(ids);
+                found.forEach(document -> missing.remove(document.id()));
+                lock.writeLock().lock();
+                try {
+                    missing.forEach(this::remove);
+                    found.forEach(this::put);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+        }
+    }
+
+    public void delete(UUID profileId) {
+        if (enabled) {
+            afterCommit(() -> remove(profileId));
+        }
+    }
+
+    /**
+     * Entfernt das Profil eines Users nach dem Commit (nach einem Löschen über die User-ID)
+     */
+    public void deleteUser(UUID userId) {
+        if (enabled) {
+            afterCommit(() -> removeUser(userId));
+        }
+    }
+
+    /**
+     * Übernimmt ein geändertes Profil nach dem Commit, ohne es erneut zu lesen
+     */
+    public void update(ProfileSearchDocument document) {
+        if (enabled) {
+            afterCommit(() -> put(document));
+        }
+    }
+
+    /**
+     * Übernimmt bereits committete Profile ohne erneutes Lesen (z.B. nach einem Import-Chunk)
+     */
+    public void putAll(Collection<ProfileSearchDocument> documents) {
+        if (!enabled || documents.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            documents.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(ProfileSearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = documentByProfileId.get(document.id());
+            if (previous != null) {
+                documents[previous] = null;
+                texts[previous] = null;
+            }
+            add(document);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID profileId) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = documentByProfileId.remove(profileId);
+            if (previous != null) {
+                profileIdByUserId.remove(documents[previous].userId(), profileId);
+                documents[previous] = null;
+                texts[previous] = null;
+                compactIfSparse();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ein User hat höchstens ein Profil
+    private void removeUser(UUID userId) {
+        lock.writeLock().lock();
+        try {
+            UUID profileId = profileIdByUserId.get(userId);
+            if (profileId != null) {
+                remove(profileId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---- Suche ----
+
+    /**
+     * Sucht Profile, deren Suchtext den Begriff enthält, und wendet die optionalen Filter an.
+     *
+     * @return die Profil-IDs der angefragten Seite, oder leer wenn die Datenbank gefragt werden muss
+     */
+    public Optional<Page<UUID>> search(String searchTerm, String address, Integer minAge, Integer maxAge,
+                                       Pageable pageable) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        Comparator<ProfileSearchDocument> order = comparator(pageable.getSort());
+        if (order == null) {
+            return Optional.empty();
+        }
+        String term = UserProfileSearch.normalizeTerm(searchTerm);
+        String addressTerm = address == null || address.isBlank() ? null : UserProfileSearch.normalizeTerm(address);
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(term);
+            int matches = 0;
+            for (int doc : candidates) {
+                ProfileSearchDocument document = documents[doc];
+                if (document != null && texts[doc].contains(term)
+                        && matchesFilters(doc, addressTerm, minAge, maxAge)) {
+                    candidates[matches++] = doc;
+                }
+            }
+            return Optional.of(new PageImpl<>(page(candidates, matches, order, pageable), pageable, matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] candidates(String term) {
+        if (term.length() < ngramLength) {
+            // Zu kurz für N-Gramme, alle Dokumente werden direkt geprüft
+            int[] all = new int[documentCount];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + ngramLength <= term.length(); i++) {
+            Postings list = postings.get(ngram(term, i));
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(Postings::size));
+        int[] candidates = lists.get(0).copy();
+        int count = candidates.length;
+        for (int i = 1; i < lists.size() && count > 0; i++) {
+            count = lists.get(i).retainAll(candidates, count);
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    private boolean matchesFilters(int doc, String addressTerm, Integer minAge, Integer maxAge) {
+        ProfileSearchDocument document = documents[doc];
+        // Die Adresse ist der letzte Abschnitt des Suchtexts
+        if (addressTerm != null && texts[doc].indexOf(addressTerm,
+                texts[doc].lastIndexOf(UserProfileSearch.SEPARATOR) + 1) < 0) {
+            return false;
+        }
+        if (minAge != null && (document.age() == null || document.age() < minAge)) {
+            return false;
+        }
+        return maxAge == null || (document.age() != null && document.age() <= maxAge);
+    }
+
+    // Hält nur offset + pageSize Treffer in einem Heap, statt alle Treffer zu sortieren.
+    // Unsortiert gilt die Reihenfolge der Dokumentnummern, in der die Treffer bereits vorliegen.
+    private List<UUID> page(int[] matches, int count, Comparator<ProfileSearchDocument> order, Pageable pageable) {
+        int offset = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), count) : 0;
+        int limit = pageable.isPaged() ? (int) Math.min(pageable.getOffset() + pageable.getPageSize(), count) : count;
+        if (pageable.getSort().isUnsorted()) {
+            List<UUID> ids = new ArrayList<>(limit - offset);
+            for (int i = offset; i < limit; i++) {
+                ids.add(documents[matches[i]].id());
+            }
+            return ids;
+        }
+        return select(matches, count, order, limit, offset);
+    }
+
+    private List<UUID> select(int[] matches, int count, Comparator<ProfileSearchDocument> order, int limit,
+                              int offset) {
+        Comparator<Integer> byDocument = (a, b) -> order.compare(documents[a], documents[b]);
+        PriorityQueue<Integer> top = new PriorityQueue<>(Math.max(1, limit), byDocument.reversed());
+        for (int i = 0; i < count; i++) {
+            top.offer(matches[i]);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        UUID[] ids = new UUID[top.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = documents[top.poll()].id();
+        }
+        return Arrays.asList(ids).subList(Math.min(offset, ids.length), ids.length);
+    }
+
+    // Gleiche Schlüssel werden nach ID geordnet, null wenn eine Eigenschaft nicht unterstützt wird
+    private static Comparator<ProfileSearchDocument> comparator(Sort sort) {
+        Comparator<ProfileSearchDocument> comparator = Comparator.comparing(ProfileSearchDocument::id);
+        if (sort.isUnsorted()) {
+            return comparator;
+        }
+        comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<ProfileSearchDocument> key = SORT_KEYS.get(order.getProperty());
+            if (key == null || order.isIgnoreCase()) {
+                return null;
+            }
+            key = order.isAscending() ? key : key.reversed();
+            comparator = comparator == null ? key : comparator.thenComparing(key);
+        }
+        return comparator.thenComparing(ProfileSearchDocument::id);
+    }
+
+    // Aufsteigend wie PostgreSQL: NULL-Werte zuletzt
+    private static <T extends Comparable<? super T>> Comparator<ProfileSearchDocument> keyComparator(
+            Function<ProfileSearchDocument, T> key) {
+        return Comparator.comparing(key, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
+    // ---- Aufbau ----
+
+    private void add(ProfileSearchDocument document) {
+        if (documentCount == documents.length) {
+            documents = Arrays.copyOf(documents, documentCount * 2);
+            texts = Arrays.copyOf(texts, documentCount * 2);
+        }
+        int doc = documentCount++;
+        String text = document.searchText();
+        documents[doc] = document;
+        texts[doc] = text;
+        documentByProfileId.put(document.id(), doc);
+        if (document.userId() != null) {
+            profileIdByUserId.put(document.userId(), document.id());
+        }
+        for (int i = 0; i + ngramLength <= text.length(); i++) {
+            postings.computeIfAbsent(ngram(text, i), gram -> new Postings()).add(doc);
+        }
+    }
+
+    private void compactIfSparse() {
+        if (documentCount > 1024 && documentByProfileId.size() < documentCount / 2) {
+            List<ProfileSearchDocument> live = new ArrayList<>(documentByProfileId.size());
+            for (int doc = 0; doc < documentCount; doc++) {
+                if (documents[doc] != null) {
+                    live.add(documents[doc]);
+                }
+            }
+            rebuild(live);
+        }
+    }
+
+    // Bis zu vier UTF-16-Zeichen passen in einen long
+    private long ngram(String text, int start) {
+        long gram = 0;
+        for (int i = start; i < start + ngramLength; i++) {
+            gram = (gram << 16) | text.charAt(i);
+        }
+        return gram;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
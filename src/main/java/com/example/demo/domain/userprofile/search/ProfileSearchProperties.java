@@ -0,0 +1,21 @@
+package com.example.demo.domain.userprofile.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties("profile-search")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class ProfileSearchProperties {
+
+    private boolean inMemoryIndex = false;
+    private int ngramLength = 3;
+
+}
@@ -49,21 +49,25 @@ ON CONFLICT DO NOTHING;
 -- ======================================================================
 -- PROFILE FÜR BENUTZER
 -- ======================================================================
-INSERT INTO user_profile (id, id_user, address, birthdate, profile_img_url, age)
+INSERT INTO user_profile (id, id_user, address, birthdate, profile_img_url, age, version)
 VALUES
-    ('81111111-1111-1111-1111-111111111111','0d8fa44c-54fd-4cd0-ace9-2a7da57992de','Paper Street 1, Wilmington','1990-05-15','https://preview.redd.it/blessed-peace-sign-v0-5bqs753g77qd1.jpeg?auto=webp&s=1824130a8b318885b8026df1d85151d973be8295',35),
-    ('82222222-2222-2222-2222-222222222222','11111111-1111-1111-1111-111111111111','Main Street 42, Berlin','1995-07-21','https://i.redd.it/prq0ioz813y71.jpg',30),
-    ('83333333-3333-3333-3333-333333333333','22222222-2222-2222-2222-222222222222','2nd Avenue 99, New York','1988-03-10','https://static.wikia.nocookie.net/85c88744-a64e-48d5-9b67-66104f8e3525/scale-to-width/755',37),
-    ('84444444-4444-4444-4444-444444444444','33333333-3333-3333-3333-333333333333','Hauptstrasse 17, Zürich','1999-11-03','https://i.pinimg.com/564x/eb/a6/c8/eba6c878341c8b978d24457c2cf44e08.jpg',25),
-    ('85555555-5555-5555-5555-555555555555','44444444-4444-4444-4444-444444444444','Park Lane 5, London','1992-01-30','https://preview.redd.it/0ixs38andbjc1.jpeg?auto=webp&s=f4eab8e40882173cd9e919440246fadb90680fde',33),
-    ('86666666-6666-6666-6666-666666666666','55555555-5555-5555-5555-555555555555','Gran Via 22, Madrid','1997-09-12','https://i.pinimg.com/originals/df/25/96/df2596b086219446585c8c78e6a94a75.jpg',28),
-    ('87777777-7777-7777-7777-777777777777','66666666-6666-6666-6666-666666666666','Via Roma 88, Milano','1994-12-05','https://i.pinimg.com/736x/50/59/75/505975a0281b2d860947663d7371cbf8.jpg',30),
-    ('88888888-8888-8888-8888-888888888888','77777777-7777-7777-7777-777777777777','Bahnhofstrasse 10, Wien','2000-06-18','https://encrypted-tbn0.gstatic.com/images?q=tbn:ANd9GcRNmQAtdDAxlvvgpf9JzVvVyhoyxpeKW1EhCA&s',24),
-    ('89999999-9999-9999-9999-999999999999','88888888-8888-8888-8888-888888888888','Broadway 55, Los Angeles','1985-04-09','https://miro.medium.com/1*3ArAncaR62MGyh-95ufbQw@2x.jpeg',40),
-    ('90000000-0000-0000-0000-000000000000','99999999-9999-9999-9999-999999999999','Street 67, Oslo','1980-06-10','https://i.kym-cdn.com/photos/images/original/002/092/931/f35.jpg',45),
-    ('91111111-1111-1111-1111-111111111111','10000000-0000-0000-0000-000000000000','Potato Street 31, Barbie Land','2000-07-22','https://i.pinimg.com/736x/46/a2/23/46a22343ab748c1e9c50432131281bbb.jpg',25)
+    ('81111111-1111-1111-1111-111111111111','0d8fa44c-54fd-4cd0-ace9-2a7da57992de','Paper Street 1, Wilmington','1990-05-15','https://preview.redd.it/blessed-peace-sign-v0-5bqs753g77qd1.jpeg?auto=webp&s=1824130a8b318885b8026df1d85151d973be8295',35,0),
+    ('82222222-2222-2222-2222-222222222222','11111111-1111-1111-1111-111111111111','Main Street 42, Berlin','1995-07-21','https://i.redd.it/prq0ioz813y71.jpg',30,0),
+    ('83333333-3333-3333-3333-333333333333','22222222-2222-2222-2222-222222222222','2nd Avenue 99, New York','1988-03-10','https://static.wikia.nocookie.net/85c88744-a64e-48d5-9b67-66104f8e3525/scale-to-width/755',37,0),
+    ('84444444-4444-4444-4444-444444444444','33333333-3333-3333-3333-333333333333','Hauptstrasse 17, Zürich','1999-11-03','https://i.pinimg.com/564x/eb/a6/c8/eba6c878341c8b978d24457c2cf44e08.jpg',25,0),
+    ('85555555-5555-5555-5555-555555555555','44444444-4444-4444-4444-444444444444','Park Lane 5, London','1992-01-30','https://preview.redd.it/0ixs38andbjc1.jpeg?auto=webp&s=f4eab8e40882173cd9e919440246fadb90680fde',33,0),
+    ('86666666-6666-6666-6666-666666666666','55555555-5555-5555-5555-555555555555','Gran Via 22, Madrid','1997-09-12','https://i.pinimg.com/originals/df/25/96/df2596b086219446585c8c78e6a94a75.jpg',28,0),
+    ('87777777-7777-7777-7777-777777777777','66666666-6666-6666-6666-666666666666','Via Roma 88, Milano','1994-12-05','https://i.pinimg.com/736x/50/59/75/505975a0281b2d860947663d7371cbf8.jpg',30,0),
+    ('88888888-8888-8888-8888-888888888888','77777777-7777-7777-7777-777777777777','Bahnhofstrasse 10, Wien','2000-06-18','https://encrypted-tbn0.gstatic.com/images?q=tbn:ANd9GcRNmQAtdDAxlvvgpf9JzVvVyhoyxpeKW1EhCA&s',24,0),
+    ('89999999-9999-9999-9999-999999999999','88888888-8888-8888-8888-888888888888','Broadway 55, Los Angeles','1985-04-09','https://miro.medium.com/1*3ArAncaR62MGyh-95ufbQw@2x.jpeg',40,0),
+    ('90000000-0000-0000-0000-000000000000','99999999-9999-9999-9999-999999999999','Street 67, Oslo','1980-06-10','https://i.kym-cdn.com/photos/images/original/002/092/931/f35.jpg',45,0),
+    ('91111111-1111-1111-1111-111111111111','10000000-0000-0000-0000-000000000000','Potato Street 31, Barbie Land','2000-07-22','https://i.pinimg.com/736x/46/a2/23/46a22343ab748c1e9c50432131281bbb.jpg',25,0)
     ON CONFLICT DO NOTHING;
 
+-- Suchtext für die Admin-Suche (gleiche Berechnung wie UserProfileSearch)
+UPDATE user_profile SET search_text = (SELECT LOWER(COALESCE(u.first_name, '') || CHR(10) || COALESCE(u.last_name, '') || CHR(10) || COALESCE(u.email, '') || CHR(10) || COALESCE(user_profile.address, '')) FROM users u WHERE u.id = user_profile.id_user)
+    WHERE search_text IS NULL;
+
 -- ======================================================================
 -- BERECHTIGUNGEN (AUTHORITIES)
 -- ======================================================================
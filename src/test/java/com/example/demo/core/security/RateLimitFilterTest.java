@@ -0,0 +1,56 @@
+package com.example.demo.core.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Der Login ist auch über kodierte Varianten des Pfads limitiert, die der Login-Filter genauso verarbeitet.
+ */
+@SpringBootTest(properties = {"rate-limit.endpoints.login.capacity=2", "rate-limit.endpoints.login.refill-per-minute=1"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitFilterTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Test
+  void encodedLoginPathIsLimited() throws Exception {
+    assertThat(login("/user/login")).isEqualTo(401);
+    assertThat(login("/user/%6Cogin")).isEqualTo(401);
+
+    assertThat(login("/user/%6Cogin")).isEqualTo(429);
+  }
+
+  @Test
+  void evictionsArePublishedPerEndpointAndKey() {
+    assertThat(meterRegistry.find("rate.limit.evictions")
+                            .tags("endpoint", "login", "key", "ip")
+                            .functionCounter()).isNotNull();
+    assertThat(meterRegistry.find("rate.limit.evictions")
+                            .tags("endpoint", "login", "key", "email")
+                            .functionCounter()).isNotNull();
+  }
+
+  private int login(String path) throws Exception {
+    // Als URI, damit MockMvc das Prozentzeichen nicht erneut kodiert
+    return mockMvc.perform(post(URI.create(path)).contentType(MediaType.APPLICATION_JSON)
+                                                 .content("{\"email\":\"user@example.com\",\"password\":\"wrong\"}"))
+                  .andReturn()
+                  .getResponse()
+                  .getStatus();
+  }
+}
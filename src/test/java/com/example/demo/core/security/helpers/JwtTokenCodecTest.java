@@ -0,0 +1,51 @@
+package com.example.demo.core.security.helpers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Die Vorprüfung liest nur das {@code exp} auf oberster Ebene, gleichnamige Schlüssel in verschachtelten Claims
+ * (z.B. ein Rollenname) oder in Strings werden ignoriert.
+ */
+class JwtTokenCodecTest {
+
+  private static final String SECRET = "AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+
+  @Test
+  void roleNamedExpDoesNotRejectToken() {
+    JwtTokenCodec codec = codec(600_000);
+    Map<String, Object> roles = new LinkedHashMap<>();
+    roles.put("exp", 0L);
+    Map<String, Object> claims = new LinkedHashMap<>();
+    claims.put("email", "\"exp\":0");
+    claims.put("pr", roles);
+    claims.put("px", Map.of("exp", List.of("\"exp\":0")));
+    String token = codec.encode(claims);
+
+    assertThat(codec.isRejectedEarly(token)).isFalse();
+    assertThat(codec.decode(token)).get()
+                                   .extracting(decoded -> decoded.get("pr", Map.class))
+                                   .isEqualTo(Map.of("exp", 0));
+  }
+
+  @Test
+  void expiredTokenIsRejectedEarly() {
+    JwtTokenCodec codec = codec(-60_000);
+    Map<String, Object> claims = new LinkedHashMap<>();
+    claims.put("pr", Map.of("exp", Long.MAX_VALUE / 1000));
+
+    assertThat(codec.decode(codec.encode(claims))).isEmpty();
+  }
+
+  private static JwtTokenCodec codec(long expirationMillis) {
+    JwtProperties properties = new JwtProperties();
+    properties.setExpirationMillis(expirationMillis);
+    properties.setIssuer("uk223-test");
+    properties.setSecret(SECRET);
+    return new JwtTokenCodec(properties);
+  }
+}
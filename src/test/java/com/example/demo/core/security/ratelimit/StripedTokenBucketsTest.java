@@ -0,0 +1,32 @@
+package com.example.demo.core.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Wechselnde Keys füllen die Stripes, dürfen aber weder neue Clients drosseln noch einen gedrosselten Key befreien.
+ */
+class StripedTokenBucketsTest {
+
+  private static final int MAX_KEYS = 64;
+
+  @Test
+  void rotatingKeysEvictTheirOwnBuckets() {
+    StripedTokenBuckets buckets = new StripedTokenBuckets(2, 1, 600_000, MAX_KEYS);
+    long now = System.nanoTime();
+    assertThat(buckets.tryAcquire("victim", now)).isZero();
+    assertThat(buckets.tryAcquire("victim", now)).isZero();
+    assertThat(buckets.tryAcquire("victim", now)).isPositive();
+
+    for (int i = 0; i < 10_000; i++) {
+      // Jeder neue Key bekommt sein eigenes, volles Kontingent
+      assertThat(buckets.tryAcquire("rotating-" + i, now)).isZero();
+    }
+
+    assertThat(buckets.size()).isLessThanOrEqualTo(MAX_KEYS);
+    assertThat(buckets.evictions()).isGreaterThanOrEqualTo(10_000 - MAX_KEYS);
+    assertThat(buckets.tryAcquire("victim", now)).isPositive();
+    assertThat(buckets.tryAcquire("first-time-client", now)).isZero();
+  }
+}
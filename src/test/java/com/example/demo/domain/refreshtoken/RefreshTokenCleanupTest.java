@@ -0,0 +1,61 @@
+package com.example.demo.domain.refreshtoken;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.demo.domain.user.User;
+import com.example.demo.domain.user.UserRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Abgelaufene Refresh Tokens werden gelöscht, unabhängig davon ob sie verwendet oder widerrufen wurden. Noch
+ * gültige bleiben erhalten, auch verwendete, damit eine Wiederverwendung erkannt wird.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenCleanupTest {
+
+  private static final UUID ADMIN = UUID.fromString("ba804cb9-fa14-42a5-afaf-be488742fc54");
+
+  @Autowired
+  private RefreshTokenCleanup refreshTokenCleanup;
+
+  @Autowired
+  private RefreshTokenRepository refreshTokenRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @AfterEach
+  void tearDown() {
+    refreshTokenRepository.deleteAll();
+  }
+
+  @Test
+  void deletesOnlyExpiredTokens() {
+    User admin = userRepository.findById(ADMIN).orElseThrow();
+    Instant now = Instant.now();
+    RefreshToken expiredUsed = save(admin, now.minus(1, ChronoUnit.MINUTES), true, false);
+    RefreshToken expiredRevoked = save(admin, now.minus(1, ChronoUnit.DAYS), false, true);
+    RefreshToken validUsed = save(admin, now.plus(1, ChronoUnit.HOURS), true, false);
+    RefreshToken valid = save(admin, now.plus(1, ChronoUnit.HOURS), false, false);
+
+    refreshTokenCleanup.deleteExpired();
+
+    assertThat(refreshTokenRepository.findAll()).extracting(RefreshToken::getId)
+                                                 .contains(validUsed.getId(), valid.getId())
+                                                 .doesNotContain(expiredUsed.getId(), expiredRevoked.getId());
+  }
+
+  private RefreshToken save(User user, Instant expiresAt, boolean used, boolean revoked) {
+    RefreshToken token = new RefreshToken(null, user, UUID.randomUUID().toString().replace("-", ""),
+        UUID.randomUUID(), expiresAt).setUsed(used).setRevoked(revoked);
+    return refreshTokenRepository.save(token);
+  }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.domain.refreshtoken;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.demo.domain.user.User;
+import com.example.demo.domain.user.UserRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Ein abgelaufener Refresh Token wird abgelehnt, ohne verbraucht zu werden. Ein erneuter Versuch mit demselben
+ * Token ist deshalb keine Wiederverwendung und widerruft die Familie nicht.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenRotationTest {
+
+  private static final UUID ADMIN = UUID.fromString("ba804cb9-fa14-42a5-afaf-be488742fc54");
+
+  @Autowired
+  private RefreshTokenService refreshTokenService;
+
+  @Autowired
+  private RefreshTokenRepository refreshTokenRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @AfterEach
+  void tearDown() {
+    refreshTokenRepository.deleteAll();
+  }
+
+  @Test
+  void expiredTokenIsNotConsumed() throws Exception {
+    User admin = userRepository.findById(ADMIN).orElseThrow();
+    UUID familyId = UUID.randomUUID();
+    String rawToken = "expired-refresh-token";
+    RefreshToken expired = refreshTokenRepository.save(
+        new RefreshToken(null, admin, sha256(rawToken), familyId, Instant.now().minus(1, ChronoUnit.MINUTES)));
+    RefreshToken sibling = refreshTokenRepository.save(
+        new RefreshToken(null, admin, sha256("sibling-refresh-token"), familyId,
+            Instant.now().plus(1, ChronoUnit.HOURS)));
+
+    for (int attempt = 0; attempt < 2; attempt++) {
+      assertThatThrownBy(() -> refreshTokenService.rotate(rawToken)).isInstanceOf(InvalidRefreshTokenException.class)
+                                                                    .hasMessageContaining("expired");
+    }
+
+    assertThat(refreshTokenRepository.findById(expired.getId())).get()
+                                                                .returns(false, RefreshToken::isUsed)
+                                                                .returns(false, RefreshToken::isRevoked);
+    assertThat(refreshTokenRepository.findById(sibling.getId())).get()
+                                                                .returns(false, RefreshToken::isRevoked);
+  }
+
+  private static String sha256(String rawToken) throws Exception {
+    return HexFormat.of()
+                    .formatHex(MessageDigest.getInstance("SHA-256")
+                                            .digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+  }
+}
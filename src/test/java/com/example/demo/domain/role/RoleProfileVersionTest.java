@@ -0,0 +1,44 @@
+package com.example.demo.domain.role;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.demo.domain.userprofile.UserProfileRepository;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Die Rollen sind Teil der Profil-Antwort: Ändert sich eine Rolle, erhalten die Profile ihrer User eine neue
+ * Version (und damit ein neues ETag), die Profile anderer User nicht.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RoleProfileVersionTest {
+
+  private static final UUID ADMIN_ROLE = UUID.fromString("ab505c92-7280-49fd-a7de-258e618df074");
+  private static final UUID OWN_PROFILE = UUID.fromString("81111111-1111-1111-1111-111111111111");
+
+  @Autowired
+  private RoleService roleService;
+
+  @Autowired
+  private UserProfileRepository userProfileRepository;
+
+  @Test
+  void roleUpdateChangesVersionOfProfilesWithThatRole() {
+    long before = version();
+
+    roleService.updateById(Role.DEFAULT_ROLE_ID, roleService.findById(Role.DEFAULT_ROLE_ID));
+    assertThat(version()).isEqualTo(before + 1);
+
+    // Der User des Profils hat die Admin-Rolle nicht
+    roleService.updateById(ADMIN_ROLE, roleService.findById(ADMIN_ROLE));
+    assertThat(version()).isEqualTo(before + 1);
+  }
+
+  private long version() {
+    return userProfileRepository.findETagById(OWN_PROFILE).orElseThrow().version();
+  }
+}
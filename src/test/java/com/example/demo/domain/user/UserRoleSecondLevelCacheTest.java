@@ -0,0 +1,69 @@
+package com.example.demo.domain.user;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.demo.core.cache.ReferenceDataCache;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Rollen und Authorities eines Users kommen nach dem ersten Laden aus dem Second-Level-Cache, wiederholtes
+ * Laden liest nur noch die Tabelle users.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserRoleSecondLevelCacheTest {
+
+  private static final UUID ADMIN = UUID.fromString("ba804cb9-fa14-42a5-afaf-be488742fc54");
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ReferenceDataCache referenceDataCache;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    referenceDataCache.evictAll();
+  }
+
+  @Test
+  void repeatedLoadDoesNotReadRoleTables() {
+    assertThat(loadAuthorities()).isEqualTo(3);
+
+    assertThat(loadAuthorities()).isEqualTo(1);
+    assertThat(statistics.getSecondLevelCacheHitCount()).isPositive();
+  }
+
+  @Test
+  void evictionReadsRoleTablesAgain() {
+    loadAuthorities();
+
+    referenceDataCache.evictAll();
+
+    assertThat(loadAuthorities()).isEqualTo(3);
+  }
+
+  /**
+   * Lädt den User mit Rollen und Authorities und gibt die Anzahl Statements zurück
+   */
+  private long loadAuthorities() {
+    statistics.clear();
+    User user = userRepository.findById(ADMIN).orElseThrow();
+    assertThat(user.getRoles()).allSatisfy(role -> assertThat(role.getAuthorities()).isNotEmpty());
+    return statistics.getPrepareStatementCount();
+  }
+}
@@ -0,0 +1,93 @@
+package com.example.demo.domain.userprofile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Gleichzeitige Requests dürfen für denselben User nur ein Profil anlegen, alle anderen erhalten 409.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserProfileCreateConcurrencyTest {
+
+  private static final int REQUESTS = 16;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private UserProfileRepository userProfileRepository;
+
+  private String token;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    // Der Admin hat in den Testdaten kein Profil, andere Tests gehen davon aus
+    mockMvc.perform(delete("/profiles/me").header(HttpHeaders.AUTHORIZATION, token));
+  }
+
+  @Test
+  void parallelCreatesForSameUserCreateOneProfile() throws Exception {
+    token = login("admin@example.com");
+    LocalDate birthdate = LocalDate.now().minusYears(30).minusDays(1);
+    String body = "{\"address\":\"Hauptstrasse 1, Bern\",\"birthdate\":\"" + birthdate + "\",\"age\":30}";
+
+    ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> statuses = new ArrayList<>();
+    try {
+      for (int i = 0; i < REQUESTS; i++) {
+        statuses.add(executor.submit(() -> {
+          start.await();
+          return mockMvc.perform(post("/profiles").header(HttpHeaders.AUTHORIZATION, token)
+                                                  .contentType(MediaType.APPLICATION_JSON)
+                                                  .content(body))
+                        .andReturn()
+                        .getResponse()
+                        .getStatus();
+        }));
+      }
+      start.countDown();
+
+      List<Integer> results = new ArrayList<>();
+      for (Future<Integer> status : statuses) {
+        results.add(status.get());
+      }
+      assertThat(results).containsOnly(201, 409);
+      assertThat(results).filteredOn(status -> status == 201).hasSize(1);
+    } finally {
+      executor.shutdownNow();
+    }
+    assertThat(userProfileRepository.findAll()).filteredOn(profile -> profile.getUser()
+                                                                               .getEmail()
+                                                                               .equals("admin@example.com"))
+                                               .hasSize(1);
+  }
+
+  private String login(String email) throws Exception {
+    return mockMvc.perform(post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                                              .content("{\"email\":\"" + email + "\",\"password\":\"1234\"}"))
+                  .andReturn()
+                  .getResponse()
+                  .getHeader(HttpHeaders.AUTHORIZATION);
+  }
+}
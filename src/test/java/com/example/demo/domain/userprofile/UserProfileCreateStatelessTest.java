@@ -0,0 +1,68 @@
+package com.example.demo.domain.userprofile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Im stateless Modus enthält der Principal nur die Claims des Tokens. Die Antwort auf das Anlegen eines Profils
+ * enthält trotzdem den vollständigen User.
+ */
+@SpringBootTest(properties = "jwt.statelessPrincipal=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserProfileCreateStatelessTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private String token;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    // Der Admin hat in den Testdaten kein Profil, andere Tests gehen davon aus
+    mockMvc.perform(delete("/profiles/me").header(HttpHeaders.AUTHORIZATION, token));
+  }
+
+  @Test
+  void createdProfileContainsUserFromDatabase() throws Exception {
+    token = mockMvc.perform(post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                                               .content("{\"email\":\"admin@example.com\",\"password\":\"1234\"}"))
+                   .andReturn()
+                   .getResponse()
+                   .getHeader(HttpHeaders.AUTHORIZATION);
+    LocalDate birthdate = LocalDate.now().minusYears(30).minusDays(1);
+    MockHttpServletResponse response = mockMvc.perform(post("/profiles").header(HttpHeaders.AUTHORIZATION, token)
+                                                                        .contentType(MediaType.APPLICATION_JSON)
+                                                                        .content("{\"address\":\"Hauptstrasse 1, Bern\","
+                                                                            + "\"birthdate\":\"" + birthdate
+                                                                            + "\",\"age\":30}"))
+                                              .andReturn()
+                                              .getResponse();
+
+    assertThat(response.getStatus()).isEqualTo(201);
+    JsonNode user = objectMapper.readTree(response.getContentAsString()).get("user");
+    assertThat(user.get("firstName").asText()).isEqualTo("James");
+    assertThat(user.get("lastName").asText()).isEqualTo("Bond");
+    assertThat(user.get("email").asText()).isEqualTo("admin@example.com");
+    assertThat(user.get("roles")).isNotEmpty()
+                                 .allSatisfy(role -> assertThat(role.get("id").isNull()).isFalse());
+  }
+}
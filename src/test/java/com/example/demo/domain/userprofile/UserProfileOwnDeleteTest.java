@@ -0,0 +1,85 @@
+package com.example.demo.domain.userprofile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.example.demo.domain.userprofile.search.ProfileSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Löscht ein User sein eigenes Profil, verschwindet es auch aus dem Besitzer- und dem Suchindex.
+ */
+@SpringBootTest(properties = "profile-search.in-memory-index=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserProfileOwnDeleteTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private ProfileOwnershipIndex profileOwnershipIndex;
+
+  @Autowired
+  private ProfileSearchIndex profileSearchIndex;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Test
+  void ownDeleteRemovesIndexEntries() throws Exception {
+    // Der Admin hat in den Testdaten kein Profil
+    String token = mockMvc.perform(post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                                                      .content("{\"email\":\"admin@example.com\",\"password\":\"1234\"}"))
+                          .andReturn()
+                          .getResponse()
+                          .getHeader(HttpHeaders.AUTHORIZATION);
+    LocalDate birthdate = LocalDate.now().minusYears(30).minusDays(1);
+    String created = mockMvc.perform(post("/profiles").header(HttpHeaders.AUTHORIZATION, token)
+                                                      .contentType(MediaType.APPLICATION_JSON)
+                                                      .content("{\"address\":\"Loeschweg 1, Bern\",\"birthdate\":\""
+                                                          + birthdate + "\",\"age\":30}"))
+                            .andReturn()
+                            .getResponse()
+                            .getContentAsString();
+    UUID profileId = UUID.fromString(objectMapper.readTree(created).get("id").asText());
+    assertThat(search()).containsExactly(profileId);
+
+    assertThat(mockMvc.perform(delete("/profiles/me").header(HttpHeaders.AUTHORIZATION, token))
+                      .andReturn()
+                      .getResponse()
+                      .getStatus()).isEqualTo(204);
+
+    assertThat(search()).isEmpty();
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    assertThat(profileOwnershipIndex.findOwnerId(profileId)).isEmpty();
+    // Kein Treffer im Besitzerindex mehr, der Besitzer wird in der Datenbank gesucht
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  private List<UUID> search() {
+    return profileSearchIndex.search("loeschweg", null, null, null, Pageable.unpaged())
+                             .orElseThrow()
+                             .getContent();
+  }
+}
@@ -0,0 +1,218 @@
+package com.example.demo.domain.userprofile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import com.example.demo.domain.user.UserRepository;
+import com.example.demo.domain.userprofile.cache.ProfileCache;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Zählt die SQL-Statements pro Profil-Endpoint. Die Berechtigungsprüfung und der Service dürfen das Profil
+ * zusammen nur einmal lesen, Seiten von Profilen brauchen unabhängig von ihrer Grösse gleich viele Statements.
+ */
+@SpringBootTest(properties = "jwt.statelessPrincipal=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserProfileStatementCountTest {
+
+  private static final UUID OWN_PROFILE = UUID.fromString("81111111-1111-1111-1111-111111111111");
+  private static final UUID UPDATED_PROFILE = UUID.fromString("84444444-4444-4444-4444-444444444444");
+  private static final UUID DELETED_PROFILE = UUID.fromString("85555555-5555-5555-5555-555555555555");
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private ProfileOwnershipIndex profileOwnershipIndex;
+
+  @Autowired
+  private ProfileCache profileCache;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    profileOwnershipIndex.remove(OWN_PROFILE);
+    profileCache.invalidateAll();
+    // Rollen und Authorities kommen im Betrieb aus dem Second-Level-Cache, gezählt werden nur die Profile
+    userRepository.findAll();
+  }
+
+  @Test
+  void ownerReadsProfileWithOneStatement() throws Exception {
+    String token = login("user@example.com");
+
+    assertThat(countStatements(get("/profiles/" + OWN_PROFILE).header(HttpHeaders.AUTHORIZATION, token)))
+        .isEqualTo(1);
+  }
+
+  @Test
+  void adminReadsProfileWithOneStatement() throws Exception {
+    String token = login("admin@example.com");
+
+    assertThat(countStatements(get("/profiles/" + OWN_PROFILE).header(HttpHeaders.AUTHORIZATION, token)))
+        .isEqualTo(1);
+  }
+
+  @Test
+  void ownerRevalidatesUnchangedProfileWithOneStatement() throws Exception {
+    String token = login("user@example.com");
+    String eTag = readETag(token);
+
+    statistics.clear();
+    MvcResult result = revalidate(token, eTag);
+
+    assertThat(result.getResponse().getStatus()).isEqualTo(304);
+    assertThat(result.getResponse().getContentLength()).isZero();
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void revalidationWithoutIndexEntryDoesNotLoadProfile() throws Exception {
+    String token = login("user@example.com");
+    String eTag = readETag(token);
+    profileOwnershipIndex.remove(OWN_PROFILE);
+
+    statistics.clear();
+    MvcResult result = revalidate(token, eTag);
+
+    // Besitzer und Version je mit einer ID-Abfrage, ohne Profil, User oder Rollen zu laden
+    assertThat(result.getResponse().getStatus()).isEqualTo(304);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    assertThat(statistics.getEntityLoadCount()).isZero();
+  }
+
+  @Test
+  void repeatedReadIsServedFromCache() throws Exception {
+    String token = login("admin@example.com");
+    countStatements(get("/profiles/" + OWN_PROFILE).header(HttpHeaders.AUTHORIZATION, token));
+
+    assertThat(countStatements(get("/profiles/" + OWN_PROFILE).header(HttpHeaders.AUTHORIZATION, token)))
+        .isZero();
+  }
+
+  @Test
+  void adminUpdatesProfileWithOneReadAndOneUpdate() throws Exception {
+    String token = login("admin@example.com");
+    LocalDate birthdate = LocalDate.now().minusYears(30).minusDays(1);
+    String body = "{\"address\":\"Hauptstrasse 18, Zürich\",\"birthdate\":\"" + birthdate + "\",\"age\":30}";
+
+    assertThat(countStatements(put("/profiles/" + UPDATED_PROFILE).header(HttpHeaders.AUTHORIZATION, token)
+                                                                   .contentType(MediaType.APPLICATION_JSON)
+                                                                   .content(body)))
+        .isEqualTo(2);
+  }
+
+  @Test
+  void ownerPatchesCachedProfileWithOneUpdate() throws Exception {
+    String token = login("user@example.com");
+    String eTag = mockMvc.perform(get("/profiles/me").header(HttpHeaders.AUTHORIZATION, token))
+                         .andReturn()
+                         .getResponse()
+                         .getHeader(HttpHeaders.ETAG);
+
+    statistics.clear();
+    MvcResult result = mockMvc.perform(patch("/profiles/me").header(HttpHeaders.AUTHORIZATION, token)
+                                                            .header(HttpHeaders.IF_MATCH, eTag)
+                                                            .contentType("application/merge-patch+json")
+                                                            .content("{\"profileImgUrl\":null}"))
+                              .andReturn();
+
+    assertThat(result.getResponse().getStatus()).isEqualTo(200);
+    assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(eTag);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void adminDeletesProfileWithOneDelete() throws Exception {
+    String token = login("admin@example.com");
+
+    assertThat(countStatements(delete("/profiles/" + DELETED_PROFILE).header(HttpHeaders.AUTHORIZATION, token)))
+        .isEqualTo(1);
+    assertThat(mockMvc.perform(delete("/profiles/" + DELETED_PROFILE).header(HttpHeaders.AUTHORIZATION, token))
+                      .andReturn()
+                      .getResponse()
+                      .getStatus()).isEqualTo(404);
+  }
+
+  @Test
+  void adminReadsProfilePagesWithConstantStatements() throws Exception {
+    String token = login("admin@example.com");
+
+    long smallPage = countStatements(get("/profiles").param("size", "3")
+                                                     .param("sort", "user.lastName")
+                                                     .header(HttpHeaders.AUTHORIZATION, token));
+    long largePage = countStatements(get("/profiles").param("size", "8")
+                                                     .param("sort", "user.lastName")
+                                                     .header(HttpHeaders.AUTHORIZATION, token));
+
+    // Seite mit User, Rollen, Authorities und Count
+    assertThat(smallPage).isLessThanOrEqualTo(4);
+    assertThat(largePage).isEqualTo(smallPage);
+  }
+
+  @Test
+  void adminScrollsProfilesWithConstantStatements() throws Exception {
+    String token = login("admin@example.com");
+
+    assertThat(countStatements(get("/profiles").param("cursor", "")
+                                               .param("size", "8")
+                                               .header(HttpHeaders.AUTHORIZATION, token)))
+        .isLessThanOrEqualTo(3);
+  }
+
+  private long countStatements(MockHttpServletRequestBuilder request) throws Exception {
+    statistics.clear();
+    MvcResult result = mockMvc.perform(request).andReturn();
+    assertThat(result.getResponse().getStatus()).isLessThan(300);
+    return statistics.getPrepareStatementCount();
+  }
+
+  private String readETag(String token) throws Exception {
+    return mockMvc.perform(get("/profiles/" + OWN_PROFILE).header(HttpHeaders.AUTHORIZATION, token))
+                  .andReturn()
+                  .getResponse()
+                  .getHeader(HttpHeaders.ETAG);
+  }
+
+  private MvcResult revalidate(String token, String eTag) throws Exception {
+    return mockMvc.perform(get("/profiles/" + OWN_PROFILE).header(HttpHeaders.AUTHORIZATION, token)
+                                                           .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                  .andReturn();
+  }
+
+  private String login(String email) throws Exception {
+    return mockMvc.perform(post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                                              .content("{\"email\":\"" + email + "\",\"password\":\"1234\"}"))
+                  .andReturn()
+                  .getResponse()
+                  .getHeader(HttpHeaders.AUTHORIZATION);
+  }
+}
@@ -0,0 +1,198 @@
+package com.example.demo.domain.userprofile.bulk;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.example.demo.domain.user.User;
+import com.example.demo.domain.user.UserRepository;
+import com.example.demo.domain.userprofile.ProfileOwnershipIndex;
+import com.example.demo.domain.userprofile.UserProfile;
+import com.example.demo.domain.userprofile.UserProfileRepository;
+import com.example.demo.domain.userprofile.cache.ProfileCache;
+import com.example.demo.domain.userprofile.search.ProfileSearchIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Massen-Update und -Delete über /profiles/bulk-update und /profiles/bulk-delete, mit Chunks von zwei Profilen.
+ * Jeder Test legt fünf eigene Profile an der "Bulkweg" mit den Altern 20 bis 40 an.
+ */
+@SpringBootTest(properties = {"profile-search.in-memory-index=true", "profile-bulk.chunk-size=2"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProfileBulkOperationsTest {
+
+  private static final int PROFILES = 5;
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private UserProfileRepository userProfileRepository;
+
+  @Autowired
+  private ProfileOwnershipIndex profileOwnershipIndex;
+
+  @Autowired
+  private ProfileSearchIndex profileSearchIndex;
+
+  @Autowired
+  private ProfileCache profileCache;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private final List<UUID> users = new ArrayList<>();
+  private final List<UUID> profiles = new ArrayList<>();
+  private String token;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    for (int i = 0; i < PROFILES; i++) {
+      User user = userRepository.save(new User().setEmail("bulk" + i + "@example.com")
+                                                .setFirstName("Bulk")
+                                                .setLastName("Test" + i)
+                                                .setPassword("x")
+                                                .setRoles(new HashSet<>()));
+      int age = 20 + i * 5;
+      UserProfile profile = userProfileRepository.save(new UserProfile().setUser(user)
+                                                                        .setAddress("Bulkweg " + i + ", Bern")
+                                                                        .setBirthdate(LocalDate.now()
+                                                                                               .minusYears(age)
+                                                                                               .minusDays(1))
+                                                                        .setAge(age));
+      users.add(user.getId());
+      profiles.add(profile.getId());
+    }
+    profileSearchIndex.build();
+    token = mockMvc.perform(post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                                               .content("{\"email\":\"admin@example.com\",\"password\":\"1234\"}"))
+                   .andReturn()
+                   .getResponse()
+                   .getHeader(HttpHeaders.AUTHORIZATION);
+  }
+
+  @AfterEach
+  void tearDown() {
+    users.forEach(userProfileRepository::deleteProfileByUserId);
+    users.forEach(userRepository::deleteDirectlyById);
+    profileSearchIndex.build();
+  }
+
+  @Test
+  void deletesSelectedIdsOnly() throws Exception {
+    JsonNode result = bulk("/profiles/bulk-delete", "{\"ids\":[\"" + profiles.get(0) + "\",\"" + profiles.get(1)
+        + "\"]}");
+
+    assertThat(result.get("affected").asLong()).isEqualTo(2);
+    assertThat(remaining()).containsExactlyElementsOf(profiles.subList(2, PROFILES));
+  }
+
+  @Test
+  void updatesFilteredProfilesAcrossChunks() throws Exception {
+    JsonNode result = bulk("/profiles/bulk-update",
+        "{\"address\":\"Bulkweg\",\"set\":{\"profileImgUrl\":\"https://example.com/bulk.png\"}}");
+
+    assertThat(result.get("affected").asLong()).isEqualTo(PROFILES);
+    assertThat(result.get("chunks")).hasSize(3);
+    assertThat(userProfileRepository.findAllById(profiles)).hasSize(PROFILES)
+                                                            .allSatisfy(profile -> assertThat(
+                                                                profile.getProfileImgUrl()).isEqualTo(
+                                                                "https://example.com/bulk.png"));
+  }
+
+  @Test
+  void combinesIdsAndFilterWithAnd() throws Exception {
+    // Alter 20, 25 und 40; nur die beiden letzten erfüllen minAge
+    JsonNode result = bulk("/profiles/bulk-delete", "{\"ids\":[\"" + profiles.get(0) + "\",\"" + profiles.get(1)
+        + "\",\"" + profiles.get(4) + "\"],\"minAge\":25}");
+
+    assertThat(result.get("affected").asLong()).isEqualTo(2);
+    assertThat(remaining()).containsExactly(profiles.get(0), profiles.get(2), profiles.get(3));
+  }
+
+  @Test
+  void rejectsEmptySelectionWithoutAll() throws Exception {
+    MvcResult result = mockMvc.perform(post("/profiles/bulk-delete").header(HttpHeaders.AUTHORIZATION, token)
+                                                                    .contentType(MediaType.APPLICATION_JSON)
+                                                                    .content("{}"))
+                              .andReturn();
+
+    assertThat(result.getResponse().getStatus()).isEqualTo(400);
+    assertThat(remaining()).containsExactlyElementsOf(profiles);
+  }
+
+  @Test
+  void updatesIndexesAndCache() throws Exception {
+    UUID deleted = profiles.get(0);
+    UUID updated = profiles.get(1);
+    for (UUID profileId : List.of(deleted, updated)) {
+      profileOwnershipIndex.findOwnerId(profileId);
+      mockMvc.perform(get("/profiles/" + profileId).header(HttpHeaders.AUTHORIZATION, token));
+      assertThat(profileCache.contains(profileId)).isTrue();
+    }
+
+    bulk("/profiles/bulk-delete", "{\"ids\":[\"" + deleted + "\"]}");
+    bulk("/profiles/bulk-update", "{\"ids\":[\"" + updated + "\"],\"set\":{\"address\":\"Bulkgasse 1, Bern\"}}");
+
+    assertThat(profileCache.contains(deleted)).isFalse();
+    assertThat(profileCache.contains(updated)).isFalse();
+    assertThat(search("bulkweg")).doesNotContain(deleted, updated)
+                                 .containsAll(profiles.subList(2, PROFILES));
+    assertThat(search("bulkgasse")).containsExactly(updated);
+
+    // Der Besitzer des gelöschten Profils wird wieder in der Datenbank gesucht
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+    assertThat(profileOwnershipIndex.findOwnerId(deleted)).isEmpty();
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  private JsonNode bulk(String path, String body) throws Exception {
+    MvcResult result = mockMvc.perform(post(path).header(HttpHeaders.AUTHORIZATION, token)
+                                                 .contentType(MediaType.APPLICATION_JSON)
+                                                 .content(body))
+                              .andReturn();
+    assertThat(result.getResponse().getStatus()).isEqualTo(200);
+    return objectMapper.readTree(result.getResponse().getContentAsString());
+  }
+
+  private List<UUID> remaining() {
+    return profiles.stream()
+                   .filter(userProfileRepository::existsById)
+                   .toList();
+  }
+
+  private List<UUID> search(String term) {
+    return profileSearchIndex.search(term, null, null, null, Pageable.unpaged())
+                             .orElseThrow()
+                             .getContent();
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.domain.userprofile.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Listet der Suchindex ein Profil, das es in der Datenbank nicht mehr gibt, enthält die Seite trotzdem nur
+ * vorhandene Profile.
+ */
+@SpringBootTest(properties = "profile-search.in-memory-index=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProfileSearchIndexStaleEntryTest {
+
+  private static final UUID GHOST = UUID.fromString("99999999-0000-0000-0000-000000000001");
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ProfileSearchIndex profileSearchIndex;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @AfterEach
+  void tearDown() {
+    profileSearchIndex.remove(GHOST);
+  }
+
+  @Test
+  void profileMissingInDatabaseIsNotReturned() throws Exception {
+    profileSearchIndex.put(new ProfileSearchDocument(GHOST, UUID.randomUUID(), "Ghost", "Profile",
+        "ghost@example.com", "Geisterstrasse 1, Bern", 30, LocalDate.of(1990, 1, 1)));
+    String token = mockMvc.perform(post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                                                      .content("{\"email\":\"admin@example.com\",\"password\":\"1234\"}"))
+                          .andReturn()
+                          .getResponse()
+                          .getHeader(HttpHeaders.AUTHORIZATION);
+
+    String body = mockMvc.perform(get("/profiles").param("search", "strasse")
+                                                  .header(HttpHeaders.AUTHORIZATION, token))
+                         .andReturn()
+                         .getResponse()
+                         .getContentAsString();
+
+    JsonNode content = objectMapper.readTree(body).get("content");
+    assertThat(content).isNotEmpty();
+    assertThat(content).allSatisfy(profile -> {
+      assertThat(profile.isObject()).isTrue();
+      assertThat(profile.get("id").asText()).isNotEqualTo(GHOST.toString());
+    });
+  }
+}